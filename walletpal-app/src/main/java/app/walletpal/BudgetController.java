@@ -0,0 +1,685 @@
+package app.walletpal;
+
+import app.walletpal.core.BudgetEngine;
+import app.walletpal.core.BudgetException;
+import app.walletpal.core.BudgetRollups;
+import app.walletpal.core.CategoryRules;
+import app.walletpal.core.DataManager;
+import app.walletpal.core.Expense;
+import app.walletpal.core.Income;
+import app.walletpal.core.JsonImporter;
+import app.walletpal.core.LedgerBatch;
+import app.walletpal.core.LedgerSnapshot;
+import app.walletpal.core.LedgerStore;
+import app.walletpal.core.LoadReport;
+import app.walletpal.core.Money;
+import app.walletpal.core.ProfileStore;
+import app.walletpal.core.Savings;
+import app.walletpal.core.SharedBudget;
+import app.walletpal.core.StatementImporter;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.binding.BooleanBinding;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Callback;
+import javafx.util.StringConverter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class BudgetController {
+    private static final String IMPORT_RULES_FILE = "import-rules.txt";
+    private static final String PROFILE = System.getProperty("walletpal.profile");
+    private static final ProfileStore PROFILES = ProfileStore.openDefault();
+
+    /** Text for inline amount editing; unreadable input becomes null. */
+    private static final StringConverter<Money> MONEY = new StringConverter<>() {
+        @Override
+        public String toString(Money money) {
+            return money == null ? "" : money.toString();
+        }
+
+        @Override
+        public Money fromString(String text) {
+            try {
+                return Money.parse(text);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    };
+
+    // Income Tab
+    @FXML private TextField incomeSourceField;
+    @FXML private TextField incomeAmountField;
+    @FXML private TextField incomeNotesField;
+    @FXML private Button addIncomeButton;
+    @FXML private TableView<Income> incomeTable;
+    @FXML private TableColumn<Income, String> incomeSourceCol;
+    @FXML private TableColumn<Income, Money> incomeAmountCol;
+    @FXML private TableColumn<Income, String> incomeNotesCol;
+
+    // Expense Tab
+    @FXML private TextField expenseCategoryField;
+    @FXML private TextField expenseLimitField;
+    @FXML private TextField expenseNotesField;
+    @FXML private Button addExpenseButton;
+    @FXML private TableView<Expense> expenseTable;
+    @FXML private TableColumn<Expense, String> expenseCategoryCol;
+    @FXML private TableColumn<Expense, Money> expenseLimitCol;
+    @FXML private TableColumn<Expense, Money> expenseSpentCol;
+    @FXML private TableColumn<Expense, Money> expenseRemainingCol;
+    @FXML private TableColumn<Expense, String> expenseNotesCol;
+
+    // Savings Tab
+    @FXML private TextField savingsCategoryField;
+    @FXML private TextField savingsGoalField;
+    @FXML private TextField savingsNotesField;
+    @FXML private Button addSavingsButton;
+    @FXML private TableView<Savings> savingsTable;
+    @FXML private TableColumn<Savings, String> savingsCategoryCol;
+    @FXML private TableColumn<Savings, Money> savingsGoalCol;
+    @FXML private TableColumn<Savings, Money> savingsSavedCol;
+    @FXML private TableColumn<Savings, Money> savingsMoreToGoCol;
+    @FXML private TableColumn<Savings, String> savingsNotesCol;
+
+    @FXML private Tab incomeTab;
+    @FXML private Tab expenseTab;
+    @FXML private Tab savingsTab;
+    @FXML private TabPane mainTabPane;
+    @FXML private Button summaryButton;
+    @FXML private Button importButton;
+    @FXML private Button importJsonButton;
+    @FXML private Button exportJsonButton;
+    @FXML private Label loadStatus;
+    @FXML private ProgressBar loadProgress;
+
+    private final BudgetEngine engine = new BudgetEngine();
+    private final BudgetRows rows = new BudgetRows(engine);
+    private final BudgetTotals totals = new BudgetTotals(engine);
+    private final BudgetRollups rollups = new BudgetRollups(engine);
+    private final SharedBudget shared = new SharedBudget(engine, new NextPulse());
+    private final SaveScheduler saveScheduler = newSaveScheduler();
+    private LedgerLoader loader;
+
+    @FXML
+    public void initialize() {
+        setupIncomeTable();
+        setupExpenseTable();
+        setupSavingsTable();
+        summaryButton.setOnAction(e -> showSummary());
+        updateUIState();
+        loadSavedData();
+    }
+
+    /** Runs once every saved row is in the lists; nothing is validated or saved before then. */
+    private void finishLoading(LoadReport report) {
+        mainTabPane.setDisable(false);
+        importButton.setDisable(false);
+        importJsonButton.setDisable(false);
+        exportJsonButton.setDisable(false);
+        setupBudgetValidation();
+        updateUIState();
+        setupAutoSave(report.getSequence());
+        if (report.hasIssues()) {
+            showAlert(describeIssues(report));
+        }
+    }
+
+    private void setupBudgetValidation() {
+        rows.getIncomes().addListener((ListChangeListener.Change<? extends Income> c) -> updateUIState());
+
+        BooleanBinding fullyAllocated = Bindings.createBooleanBinding(
+                () -> !engine.getUnallocated().isPositive(),
+                totals.totalIncomeProperty(), totals.totalExpenseLimitsProperty(), totals.totalSavingsGoalsProperty());
+        addExpenseButton.disableProperty().bind(fullyAllocated);
+        addSavingsButton.disableProperty().bind(fullyAllocated);
+    }
+
+    private void updateUIState() {
+        boolean hasIncome = !engine.getIncomes().isEmpty();
+        expenseTab.setDisable(!hasIncome);
+        savingsTab.setDisable(!hasIncome);
+        summaryButton.setDisable(!hasIncome);
+
+    }
+
+    private void setupIncomeTable() {
+        incomeSourceCol.setCellValueFactory(cell(Income::getSource));
+        incomeAmountCol.setCellValueFactory(cell(Income::getAmount));
+        incomeNotesCol.setCellValueFactory(cell(Income::getNotes));
+
+        incomeTable.setItems(sorted(rows.getIncomes(), incomeTable));
+        addIncomeButton.setOnAction(e -> addIncome());
+
+        incomeTable.setEditable(true);
+        editText(incomeSourceCol, (income, source) ->
+                engine.updateIncome(income, source, income.getAmount(), income.getNotes()));
+        editMoney(incomeAmountCol, (income, amount) ->
+                engine.updateIncome(income, income.getSource(), amount, income.getNotes()));
+        editText(incomeNotesCol, (income, notes) ->
+                engine.updateIncome(income, income.getSource(), income.getAmount(), notes));
+
+        RowEditor<Income> editor = new RowEditor<Income>("Edit Income", (income, values) -> {
+            try {
+                engine.updateIncome(income, values[0], Money.parse(values[1]), values[2]);
+            } catch (NumberFormatException e) {
+                showAlert("Invalid amount format!");
+            } catch (BudgetException e) {
+                showAlert(e.getMessage());
+            }
+        })
+                .field("Source:", Income::getSource)
+                .field("Amount:", income -> income.getAmount().toString())
+                .field("Notes:", Income::getNotes);
+        incomeTable.setContextMenu(new ContextMenu(
+                rowAction(incomeTable, "Edit", editor::edit),
+                rowAction(incomeTable, "Delete", engine::remove)));
+    }
+
+    private void addIncome() {
+        String source = incomeSourceField.getText().trim();
+        String notes = incomeNotesField.getText().trim();
+        Money amount;
+        try { amount = Money.parse(incomeAmountField.getText()); }
+        catch (Exception e) { showAlert("Invalid amount!"); return; }
+
+        try { engine.addIncome(source, amount, notes); }
+        catch (BudgetException e) { showAlert(e.getMessage()); return; }
+
+        incomeSourceField.clear(); incomeAmountField.clear(); incomeNotesField.clear();
+        updateUIState();
+    }
+
+    private void setupExpenseTable() {
+        expenseCategoryCol.setCellValueFactory(cell(Expense::getCategory));
+        expenseLimitCol.setCellValueFactory(cell(Expense::getLimit));
+        expenseSpentCol.setCellValueFactory(cell(Expense::getSpent));
+        expenseRemainingCol.setCellValueFactory(cell(Expense::getRemaining));
+        expenseNotesCol.setCellValueFactory(cell(Expense::getNotes));
+
+        expenseTable.setItems(sorted(rows.getExpenses(), expenseTable));
+        addExpenseButton.setOnAction(e -> addExpense());
+
+        expenseTable.setEditable(true);
+        editText(expenseCategoryCol, (expense, category) -> engine.updateExpense(expense, category,
+                expense.getLimit(), expense.getSpent(), expense.getNotes()));
+        editMoney(expenseLimitCol, (expense, limit) -> engine.updateExpense(expense, expense.getCategory(),
+                limit, expense.getSpent(), expense.getNotes()));
+        editMoney(expenseSpentCol, (expense, spent) -> engine.updateExpense(expense, expense.getCategory(),
+                expense.getLimit(), spent, expense.getNotes()));
+        editText(expenseNotesCol, (expense, notes) -> engine.updateExpense(expense, expense.getCategory(),
+                expense.getLimit(), expense.getSpent(), notes));
+        expenseRemainingCol.setEditable(false);
+
+        RowEditor<Expense> editor = new RowEditor<Expense>("Edit Expense", (expense, values) -> {
+            try {
+                engine.updateExpense(expense, values[0], Money.parse(values[1]), Money.parse(values[2]), values[3]);
+            } catch (NumberFormatException e) {
+                showAlert("Invalid number format!");
+            } catch (BudgetException e) {
+                showAlert(e.getMessage());
+            }
+        })
+                .field("Category:", Expense::getCategory)
+                .field("Limit:", expense -> expense.getLimit().toString())
+                .field("Spent:", expense -> expense.getSpent().toString())
+                .field("Notes:", Expense::getNotes);
+        expenseTable.setContextMenu(new ContextMenu(
+                rowAction(expenseTable, "Edit", editor::edit),
+                rowAction(expenseTable, "Add Spent", this::addSpent),
+                rowAction(expenseTable, "Delete", engine::remove)));
+    }
+
+    private void addExpense() {
+        String category = expenseCategoryField.getText().trim();
+        String notes = expenseNotesField.getText().trim();
+        Money limit;
+        try { limit = Money.parse(expenseLimitField.getText()); }
+        catch (Exception e) { showAlert("Invalid limit!"); return; }
+
+        try { engine.addExpense(category, limit, notes); }
+        catch (BudgetException e) { showAlert(e.getMessage()); return; }
+
+        expenseCategoryField.clear(); expenseLimitField.clear(); expenseNotesField.clear();
+    }
+
+    private void addSpent(Expense exp) {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Add Spent");
+        dialog.setHeaderText("Enter amount spent for " + exp.getCategory());
+        dialog.setContentText("Amount:");
+
+        dialog.showAndWait().ifPresent(input -> {
+            try {
+                Money amt = Money.parse(input);
+                if (amt.isNegative()) {
+                    showAlert("Amount cannot be negative!");
+                    return;
+                }
+                if (amt.compareTo(exp.getRemaining()) > 0) {
+                    Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
+                    confirmAlert.setTitle("Over Budget Warning");
+                    confirmAlert.setHeaderText("You are about to exceed your budget!");
+                    confirmAlert.setContentText(String.format(
+                            "This will exceed your remaining budget of $%s by $%s.\nDo you want to continue?",
+                            exp.getRemaining(), amt.minus(exp.getRemaining())
+                    ));
+
+                    confirmAlert.showAndWait().ifPresent(result -> {
+                        if (result == ButtonType.OK) {
+                            engine.spend(exp, amt, System.currentTimeMillis());
+                        }
+                    });
+                } else {
+                    engine.spend(exp, amt, System.currentTimeMillis());
+                }
+            } catch (NumberFormatException e) {
+                showAlert("Please enter a valid number!");
+            } catch (Exception e) {
+                showAlert("An error occurred: " + e.getMessage());
+            }
+        });
+    }
+
+    private void setupSavingsTable() {
+        savingsCategoryCol.setCellValueFactory(cell(Savings::getCategory));
+        savingsGoalCol.setCellValueFactory(cell(Savings::getGoal));
+        savingsSavedCol.setCellValueFactory(cell(Savings::getSaved));
+        savingsMoreToGoCol.setCellValueFactory(cell(Savings::getMoreToGo));
+        savingsNotesCol.setCellValueFactory(cell(Savings::getNotes));
+
+        savingsTable.setItems(sorted(rows.getSavings(), savingsTable));
+        addSavingsButton.setOnAction(e -> addSavings());
+
+        savingsTable.setEditable(true);
+        editText(savingsCategoryCol, (saving, category) -> engine.updateSavings(saving, category,
+                saving.getGoal(), saving.getSaved(), saving.getNotes()));
+        editMoney(savingsGoalCol, (saving, goal) -> engine.updateSavings(saving, saving.getCategory(),
+                goal, saving.getSaved(), saving.getNotes()));
+        editMoney(savingsSavedCol, (saving, saved) -> engine.updateSavings(saving, saving.getCategory(),
+                saving.getGoal(), saved, saving.getNotes()));
+        editText(savingsNotesCol, (saving, notes) -> engine.updateSavings(saving, saving.getCategory(),
+                saving.getGoal(), saving.getSaved(), notes));
+        savingsMoreToGoCol.setEditable(false);
+
+        RowEditor<Savings> editor = new RowEditor<Savings>("Edit Savings", (saving, values) -> {
+            try {
+                engine.updateSavings(saving, values[0], Money.parse(values[1]), Money.parse(values[2]), values[3]);
+            } catch (NumberFormatException e) {
+                showAlert("Invalid number format!");
+            } catch (BudgetException e) {
+                showAlert(e.getMessage());
+            }
+        })
+                .field("Category:", Savings::getCategory)
+                .field("Goal:", saving -> saving.getGoal().toString())
+                .field("Saved:", saving -> saving.getSaved().toString())
+                .field("Notes:", Savings::getNotes);
+        savingsTable.setContextMenu(new ContextMenu(
+                rowAction(savingsTable, "Edit", editor::edit),
+                rowAction(savingsTable, "Add Saved", this::addSaved),
+                rowAction(savingsTable, "Delete", engine::remove)));
+    }
+
+    private void addSavings() {
+        String category = savingsCategoryField.getText().trim();
+        String notes = savingsNotesField.getText().trim();
+        Money goal;
+        try { goal = Money.parse(savingsGoalField.getText()); }
+        catch (Exception e) { showAlert("Invalid goal!"); return; }
+
+        try { engine.addSavings(category, goal, notes); }
+        catch (BudgetException e) { showAlert(e.getMessage()); return; }
+
+        savingsCategoryField.clear(); savingsGoalField.clear(); savingsNotesField.clear();
+    }
+
+    private void addSaved(Savings s) {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Add Saved");
+        dialog.setHeaderText("Enter amount saved for " + s.getCategory());
+        dialog.setContentText("Amount:");
+
+        dialog.showAndWait().ifPresent(input -> {
+            try {
+                Money amt = Money.parse(input);
+                if (amt.isNegative()) {
+                    showAlert("Amount cannot be negative!");
+                    return;
+                }
+                engine.deposit(s, amt, System.currentTimeMillis());
+            } catch (NumberFormatException e) {
+                showAlert("Please enter a valid number!");
+            } catch (Exception e) {
+                showAlert("An error occurred: " + e.getMessage());
+            }
+        });
+    }
+
+    @FXML
+    private void showSummary() {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/summary.fxml"));
+            Stage stage = new Stage();
+            stage.setScene(new Scene(loader.load()));
+
+            SummaryController controller = loader.getController();
+            controller.setData(totals, rows, rollups);
+
+            stage.setTitle("WalletPal Summary");
+            stage.show();
+        } catch (IOException e) {
+            showAlert("Error loading summary: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the budget as last saved, paged from the data files rather than the engine, so
+     * it can be browsed while a large ledger is still loading.
+     */
+    @FXML
+    private void showSavedLedger() {
+        LedgerStore store = DataManager.store(dataDirectory());
+        if (!store.exists()) {
+            showAlert("Nothing has been saved yet.");
+            return;
+        }
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/ledger.fxml"));
+            Stage stage = new Stage();
+            stage.setScene(new Scene(loader.load()));
+
+            LedgerBrowserController controller = loader.getController();
+            controller.setStore(store);
+            stage.setOnHidden(e -> controller.close());
+
+            stage.setTitle("WalletPal Saved Ledger");
+            stage.show();
+        } catch (IOException e) {
+            showAlert("Error loading saved ledger: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cell values are read from the row when a cell shows it. Rows have no properties of
+     * their own; {@link BudgetRows} re-sets a changed row so its visible cells reload.
+     */
+    private static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> cell(Function<S, T> value) {
+        return data -> new ReadOnlyObjectWrapper<>(value.apply(data.getValue()));
+    }
+
+    /** One context menu per table; its items act on the selected row. */
+    private <T> MenuItem rowAction(TableView<T> table, String text, Consumer<T> action) {
+        MenuItem item = new MenuItem(text);
+        item.disableProperty().bind(table.getSelectionModel().selectedItemProperty().isNull());
+        item.setOnAction(e -> {
+            T row = table.getSelectionModel().getSelectedItem();
+            if (row == null) return;
+            try {
+                action.accept(row);
+            } catch (BudgetException ex) {
+                showAlert(ex.getMessage());
+            }
+        });
+        return item;
+    }
+
+    private <S> void editText(TableColumn<S, String> column, BiConsumer<S, String> commit) {
+        column.setCellFactory(TextFieldTableCell.forTableColumn());
+        column.setOnEditCommit(e -> commitEdit(e.getTableView(), () -> commit.accept(e.getRowValue(), e.getNewValue())));
+    }
+
+    private <S> void editMoney(TableColumn<S, Money> column, BiConsumer<S, Money> commit) {
+        column.setCellFactory(TextFieldTableCell.forTableColumn(MONEY));
+        column.setOnEditCommit(e -> {
+            if (e.getNewValue() == null) {
+                showAlert("Invalid amount format!");
+                e.getTableView().refresh();
+                return;
+            }
+            commitEdit(e.getTableView(), () -> commit.accept(e.getRowValue(), e.getNewValue()));
+        });
+    }
+
+    /** Runs an inline edit; one the budget rejects is reported and the cell shows the old value again. */
+    private void commitEdit(TableView<?> table, Runnable edit) {
+        try {
+            edit.run();
+        } catch (BudgetException e) {
+            showAlert(e.getMessage());
+            table.refresh();
+        }
+    }
+
+    /** Sorting a table reorders this view only; the budget keeps its own order. */
+    private static <T> SortedList<T> sorted(ObservableList<T> items, TableView<T> table) {
+        SortedList<T> view = new SortedList<>(items);
+        view.comparatorProperty().bind(table.comparatorProperty());
+        return view;
+    }
+
+    private void showAlert(String msg) {
+        Alert alert = new Alert(Alert.AlertType.WARNING, msg, ButtonType.OK);
+        alert.showAndWait();
+    }
+
+    private void loadSavedData() {
+        loader = new LedgerLoader(engine, dataDirectory());
+        showProgress(loader);
+        mainTabPane.setDisable(true);
+
+        loader.setOnSucceeded(e -> finishLoading(loader.getValue()));
+        loader.setOnFailed(e -> {
+            // Saving now would overwrite the file with whatever was read so far.
+            mainTabPane.setDisable(false);
+            setupBudgetValidation();
+            updateUIState();
+            showAlert("Saved data could not be loaded: " + loader.getException().getMessage()
+                    + "\nChanges made in this session will not be saved.");
+        });
+
+        Thread thread = new Thread(loader, "walletpal-load");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reads a CSV or OFX bank statement into the expenses and savings goals on a background
+     * thread, categorized by the rules in {@value #IMPORT_RULES_FILE} beside the budget.
+     */
+    @FXML
+    private void importStatement() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Bank Statement");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Bank statements", "*.csv", "*.ofx", "*.qfx"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        File file = chooser.showOpenDialog(importButton.getScene().getWindow());
+        if (file == null) return;
+
+        CategoryRules rules;
+        try {
+            Path rulesFile = dataDirectory().resolve(IMPORT_RULES_FILE);
+            rules = Files.exists(rulesFile) ? CategoryRules.read(rulesFile) : new CategoryRules();
+        } catch (IOException e) {
+            showAlert("Import rules could not be read: " + e.getMessage());
+            return;
+        }
+
+        StatementImporter importer = new StatementImporter(shared, rules);
+        Task<StatementImporter.Report> task = new Task<>() {
+            @Override
+            protected StatementImporter.Report call() throws Exception {
+                updateMessage("Importing " + file.getName() + "...");
+                return importer.run(file.toPath(), ZoneId.systemDefault());
+            }
+        };
+        showProgress(task);
+        importButton.setDisable(true);
+        task.setOnSucceeded(e -> {
+            importButton.setDisable(false);
+            new Alert(Alert.AlertType.INFORMATION, task.getValue().toString(), ButtonType.OK).showAndWait();
+        });
+        task.setOnFailed(e -> {
+            importButton.setDisable(false);
+            showAlert("Import failed: " + task.getException().getMessage());
+        });
+
+        Thread thread = new Thread(task, "walletpal-categorize");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Adds the rows of a JSON export to the budget on a background thread. Expenses and
+     * savings goals the unallocated income cannot cover are skipped and listed afterwards.
+     */
+    @FXML
+    private void importJson() {
+        File file = jsonChooser("Import JSON").showOpenDialog(importJsonButton.getScene().getWindow());
+        if (file == null) return;
+
+        JsonImporter importer = new JsonImporter(shared);
+        Task<JsonImporter.Report> task = new Task<>() {
+            @Override
+            protected JsonImporter.Report call() throws Exception {
+                updateMessage("Importing " + file.getName() + "...");
+                return importer.run(file.toPath());
+            }
+        };
+        showProgress(task);
+        importJsonButton.setDisable(true);
+        task.setOnSucceeded(e -> {
+            importJsonButton.setDisable(false);
+            updateUIState();
+            new Alert(Alert.AlertType.INFORMATION, task.getValue().toString(), ButtonType.OK).showAndWait();
+        });
+        task.setOnFailed(e -> {
+            importJsonButton.setDisable(false);
+            updateUIState();
+            showAlert("Import failed: " + task.getException().getMessage());
+        });
+
+        Thread thread = new Thread(task, "walletpal-import-json");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Writes the whole budget to a JSON file on a background thread. */
+    @FXML
+    private void exportJson() {
+        File file = jsonChooser("Export JSON").showSaveDialog(exportJsonButton.getScene().getWindow());
+        if (file == null) return;
+
+        LedgerSnapshot snapshot = LedgerSnapshot.of(engine);
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                updateMessage("Exporting " + file.getName() + "...");
+                DataManager.exportJson(snapshot, file.toPath());
+                return null;
+            }
+        };
+        showProgress(task);
+        exportJsonButton.setDisable(true);
+        task.setOnSucceeded(e -> exportJsonButton.setDisable(false));
+        task.setOnFailed(e -> {
+            exportJsonButton.setDisable(false);
+            showAlert("Export failed: " + task.getException().getMessage());
+        });
+
+        Thread thread = new Thread(task, "walletpal-export-json");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static FileChooser jsonChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("JSON", "*.json"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        return chooser;
+    }
+
+    /** Shows the task's message and progress in the status bar while it runs. */
+    private void showProgress(Task<?> task) {
+        loadStatus.textProperty().bind(task.messageProperty());
+        loadStatus.visibleProperty().bind(task.runningProperty());
+        loadStatus.managedProperty().bind(task.runningProperty());
+        loadProgress.progressProperty().bind(task.progressProperty());
+        loadProgress.visibleProperty().bind(task.runningProperty());
+        loadProgress.managedProperty().bind(task.runningProperty());
+    }
+
+    private static String describeIssues(LoadReport report) {
+        StringBuilder message = new StringBuilder();
+        message.append(report.getIssues().size()).append(" line(s) in the data file could not be read and were skipped:");
+        report.getIssues().stream().limit(5).forEach(issue -> message.append("\n").append(issue));
+        if (report.getIssues().size() > 5) message.append("\n...");
+        return message.toString();
+    }
+
+    /**
+     * Where the budget lives: the profile named by {@code -Dwalletpal.profile} in the
+     * default profile store, or else the data directory itself.
+     */
+    private static Path dataDirectory() {
+        return PROFILE == null ? DataManager.dataDir() : PROFILES.directory(PROFILE);
+    }
+
+    private SaveScheduler newSaveScheduler() {
+        if (PROFILE == null) {
+            return new SaveScheduler(engine, DataManager.dataDir(),
+                    snapshot -> DataManager.writeData(DataManager.dataDir(), snapshot));
+        }
+        return new SaveScheduler(engine, PROFILES.directory(PROFILE), snapshot -> PROFILES.save(PROFILE, snapshot));
+    }
+
+    private void setupAutoSave(long loadedSequence) {
+        saveScheduler.start(loadedSequence);
+    }
+
+    /**
+     * Starts a batch of row changes for bulk operations such as imports. The batch is
+     * journalled like any other change once committed.
+     */
+    public LedgerBatch newBatch() {
+        return new LedgerBatch(engine);
+    }
+
+    public BudgetEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * The budget for background work such as imports or recurring postings: batches
+     * submitted from any thread reach the tables together on the next pulse.
+     */
+    public SharedBudget getSharedBudget() {
+        return shared;
+    }
+
+    public void shutdown() {
+        loader.cancel();
+        saveScheduler.shutdown();
+    }
+
+}
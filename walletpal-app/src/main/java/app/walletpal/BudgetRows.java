@@ -0,0 +1,105 @@
+package app.walletpal;
+
+import app.walletpal.core.BudgetEngine;
+import app.walletpal.core.BudgetListener;
+import app.walletpal.core.Expense;
+import app.walletpal.core.Income;
+import app.walletpal.core.Savings;
+import app.walletpal.core.Section;
+import javafx.collections.ObservableList;
+
+import java.util.BitSet;
+
+/**
+ * Observable lists of the engine's rows, index for index. Each engine event becomes at
+ * most one list change, so a batch or a restored file reaches the tables as one change
+ * per section. A changed row is reported by setting it again in place, so the rows
+ * themselves carry no properties; tables bind only the cells they are showing. Edits,
+ * spends and deposits are collected until the engine's operation ends, so a batch
+ * posting to thousands of rows is one change per section too. Must be used on the FX
+ * thread.
+ */
+public class BudgetRows implements BudgetListener {
+    private final BudgetEngine engine;
+    private final RowList<Income> incomes = new RowList<>();
+    private final RowList<Expense> expenses = new RowList<>();
+    private final RowList<Savings> savings = new RowList<>();
+    /** Rows changed in place since the last totals change, by section. */
+    private final BitSet[] changed = {new BitSet(), new BitSet(), new BitSet()};
+
+    public BudgetRows(BudgetEngine engine) {
+        this.engine = engine;
+        added(Section.INCOME, 0, engine.getIncomes().size());
+        added(Section.EXPENSE, 0, engine.getExpenses().size());
+        added(Section.SAVINGS, 0, engine.getSavings().size());
+        engine.addListener(this);
+    }
+
+    public ObservableList<Income> getIncomes() { return incomes; }
+    public ObservableList<Expense> getExpenses() { return expenses; }
+    public ObservableList<Savings> getSavings() { return savings; }
+
+    @Override
+    public void added(Section section, int from, int to) {
+        BitSet pending = changed[section.ordinal()];
+        if (pending.length() > from) changed[section.ordinal()] = shifted(pending, from, to - from);
+        switch (section) {
+            case INCOME -> incomes.addAll(from, engine.getIncomes().subList(from, to));
+            case EXPENSE -> expenses.addAll(from, engine.getExpenses().subList(from, to));
+            case SAVINGS -> savings.addAll(from, engine.getSavings().subList(from, to));
+        }
+    }
+
+    @Override
+    public void removed(Section section, int[] indexes) {
+        BitSet pending = changed[section.ordinal()];
+        if (!pending.isEmpty()) changed[section.ordinal()] = without(pending, indexes);
+        switch (section) {
+            case INCOME -> incomes.removeAt(indexes);
+            case EXPENSE -> expenses.removeAt(indexes);
+            case SAVINGS -> savings.removeAt(indexes);
+        }
+    }
+
+    @Override
+    public void updated(Section section, int index) {
+        changed[section.ordinal()].set(index);
+    }
+
+    @Override
+    public void transacted(Section section, int index, long cents, long timestamp) {
+        changed[section.ordinal()].set(index);
+    }
+
+    /** Every engine operation ends here, so the rows it changed go out as one change per section. */
+    @Override
+    public void totalsChanged() {
+        flush();
+    }
+
+    /** {@code rows} with the indexes from {@code from} on moved up by {@code count}. */
+    private static BitSet shifted(BitSet rows, int from, int count) {
+        BitSet moved = rows.get(0, from);
+        for (int i = rows.nextSetBit(from); i >= 0; i = rows.nextSetBit(i + 1)) moved.set(i + count);
+        return moved;
+    }
+
+    /** {@code rows} renumbered for the removal of {@code indexes}, in ascending order. */
+    private static BitSet without(BitSet rows, int[] indexes) {
+        BitSet kept = new BitSet();
+        int removedBefore = 0;
+        for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+            while (removedBefore < indexes.length && indexes[removedBefore] < i) removedBefore++;
+            if (removedBefore < indexes.length && indexes[removedBefore] == i) continue;
+            kept.set(i - removedBefore);
+        }
+        return kept;
+    }
+
+    private void flush() {
+        incomes.changed(changed[Section.INCOME.ordinal()]);
+        expenses.changed(changed[Section.EXPENSE.ordinal()]);
+        savings.changed(changed[Section.SAVINGS.ordinal()]);
+        for (BitSet rows : changed) rows.clear();
+    }
+}
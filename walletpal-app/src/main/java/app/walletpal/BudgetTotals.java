@@ -0,0 +1,57 @@
+package app.walletpal;
+
+import app.walletpal.core.BudgetEngine;
+import app.walletpal.core.BudgetListener;
+import app.walletpal.core.Money;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
+/**
+ * The engine's running totals as observable properties. The engine keeps the sums and
+ * reports once per operation, so bindings are notified once per change however many
+ * rows it touched.
+ */
+public class BudgetTotals implements BudgetListener {
+    private final BudgetEngine engine;
+    private final ReadOnlyObjectWrapper<Money> totalIncome = new ReadOnlyObjectWrapper<>(this, "totalIncome", Money.ZERO);
+    private final ReadOnlyObjectWrapper<Money> totalExpenseLimits = new ReadOnlyObjectWrapper<>(this, "totalExpenseLimits", Money.ZERO);
+    private final ReadOnlyObjectWrapper<Money> totalSpent = new ReadOnlyObjectWrapper<>(this, "totalSpent", Money.ZERO);
+    private final ReadOnlyObjectWrapper<Money> totalSavingsGoals = new ReadOnlyObjectWrapper<>(this, "totalSavingsGoals", Money.ZERO);
+    private final ReadOnlyObjectWrapper<Money> totalSaved = new ReadOnlyObjectWrapper<>(this, "totalSaved", Money.ZERO);
+
+    public BudgetTotals(BudgetEngine engine) {
+        this.engine = engine;
+        totalsChanged();
+        engine.addListener(this);
+    }
+
+    @Override
+    public void totalsChanged() {
+        publish(totalIncome, engine.getTotalIncome());
+        publish(totalExpenseLimits, engine.getTotalExpenseLimits());
+        publish(totalSpent, engine.getTotalSpent());
+        publish(totalSavingsGoals, engine.getTotalSavingsGoals());
+        publish(totalSaved, engine.getTotalSaved());
+    }
+
+    private static void publish(ReadOnlyObjectWrapper<Money> total, Money value) {
+        if (!total.get().equals(value)) {
+            total.set(value);
+        }
+    }
+
+    public Money getTotalIncome() { return totalIncome.get(); }
+    public ReadOnlyObjectProperty<Money> totalIncomeProperty() { return totalIncome.getReadOnlyProperty(); }
+
+    public Money getTotalExpenseLimits() { return totalExpenseLimits.get(); }
+    public ReadOnlyObjectProperty<Money> totalExpenseLimitsProperty() { return totalExpenseLimits.getReadOnlyProperty(); }
+
+    public Money getTotalSpent() { return totalSpent.get(); }
+    public ReadOnlyObjectProperty<Money> totalSpentProperty() { return totalSpent.getReadOnlyProperty(); }
+
+    public Money getTotalSavingsGoals() { return totalSavingsGoals.get(); }
+    public ReadOnlyObjectProperty<Money> totalSavingsGoalsProperty() { return totalSavingsGoals.getReadOnlyProperty(); }
+
+    public Money getTotalSaved() { return totalSaved.get(); }
+    public ReadOnlyObjectProperty<Money> totalSavedProperty() { return totalSaved.getReadOnlyProperty(); }
+}
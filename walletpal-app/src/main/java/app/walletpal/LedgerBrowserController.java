@@ -0,0 +1,218 @@
+package app.walletpal;
+
+import app.walletpal.core.LedgerSnapshot;
+import app.walletpal.core.LedgerStore;
+import app.walletpal.core.Money;
+import app.walletpal.core.Section;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.util.Callback;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * The budget as last saved, read through a {@link LedgerStore} rather than the engine:
+ * rows are paged in as the table scrolls, a category is looked up in the store's
+ * category index and transactions in its date index, so the window works on a ledger
+ * of any size without loading it. Store reads run on one background thread.
+ */
+public class LedgerBrowserController {
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /** One saved row of any section; {@code progress} is null for incomes. */
+    record SavedRow(int index, String category, Money amount, Money progress, String notes) {}
+
+    /** One saved transaction; {@code row} is the index of its row. */
+    record SavedTransaction(long timestamp, int row, Money amount) {}
+
+    @FXML private Label countLabel;
+    @FXML private ChoiceBox<Section> sectionChoice;
+    @FXML private TextField categoryField;
+    @FXML private TableView<SavedRow> rowTable;
+    @FXML private TableColumn<SavedRow, Integer> rowNumberCol;
+    @FXML private TableColumn<SavedRow, String> rowCategoryCol;
+    @FXML private TableColumn<SavedRow, Money> rowAmountCol;
+    @FXML private TableColumn<SavedRow, Money> rowProgressCol;
+    @FXML private TableColumn<SavedRow, String> rowNotesCol;
+    @FXML private DatePicker fromDate;
+    @FXML private DatePicker toDate;
+    @FXML private TableView<SavedTransaction> transactionTable;
+    @FXML private TableColumn<SavedTransaction, String> transactionDateCol;
+    @FXML private TableColumn<SavedTransaction, Integer> transactionRowCol;
+    @FXML private TableColumn<SavedTransaction, Money> transactionAmountCol;
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "walletpal-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ZoneId zone = ZoneId.systemDefault();
+    private LedgerStore store;
+    /** Bumped by every query, so answers to one superseded in the meantime are dropped. */
+    private int rowQuery;
+    private int transactionQuery;
+
+    @FXML
+    public void initialize() {
+        rowNumberCol.setCellValueFactory(cell(row -> row.index() + 1));
+        rowCategoryCol.setCellValueFactory(cell(SavedRow::category));
+        rowAmountCol.setCellValueFactory(cell(SavedRow::amount));
+        rowProgressCol.setCellValueFactory(cell(SavedRow::progress));
+        rowNotesCol.setCellValueFactory(cell(SavedRow::notes));
+        transactionDateCol.setCellValueFactory(cell(transaction ->
+                DATE.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(transaction.timestamp()), zone))));
+        transactionRowCol.setCellValueFactory(cell(transaction -> transaction.row() + 1));
+        transactionAmountCol.setCellValueFactory(cell(SavedTransaction::amount));
+
+        sectionChoice.getItems().setAll(Section.values());
+        sectionChoice.setValue(Section.EXPENSE);
+        sectionChoice.valueProperty().addListener((observable, old, section) -> {
+            categoryField.clear();
+            transactionQuery++;
+            transactionTable.setItems(FXCollections.observableArrayList());
+            showRows();
+        });
+        categoryField.setOnAction(e -> showRows());
+        LocalDate today = LocalDate.now(zone);
+        fromDate.setValue(today.withDayOfMonth(1));
+        toDate.setValue(today);
+    }
+
+    /** Browses {@code store} until the window closes; {@link #close} stops its reads. */
+    public void setStore(LedgerStore store) {
+        this.store = store;
+        showRows();
+    }
+
+    public void close() {
+        io.shutdownNow();
+    }
+
+    /** Shows the chosen section's rows, or only those in the category typed, if any. */
+    @FXML
+    private void showRows() {
+        Section section = sectionChoice.getValue();
+        String category = categoryField.getText().trim();
+        rowCategoryCol.setText(section == Section.INCOME ? "Source" : "Category");
+        rowAmountCol.setText(switch (section) {
+            case INCOME -> "Amount";
+            case EXPENSE -> "Limit";
+            case SAVINGS -> "Goal";
+        });
+        rowProgressCol.setText(section == Section.SAVINGS ? "Saved" : "Spent");
+        rowProgressCol.setVisible(section != Section.INCOME);
+
+        int asked = ++rowQuery;
+        io.execute(() -> {
+            try {
+                if (category.isEmpty()) {
+                    int count = store.count(section);
+                    Platform.runLater(() -> {
+                        if (asked != rowQuery) return;
+                        countLabel.setText(count + " row(s) as of the last save");
+                        rowTable.setItems(new PagedRows<>(count, reader(section), io, this::failed));
+                    });
+                } else {
+                    int[] rows = store.inCategory(section, category);
+                    Platform.runLater(() -> {
+                        if (asked != rowQuery) return;
+                        countLabel.setText(rows.length + " row(s) in " + category + " as of the last save");
+                        rowTable.setItems(new PagedRows<>(rows, reader(section), io, this::failed));
+                    });
+                }
+            } catch (IOException e) {
+                Platform.runLater(() -> failed(e));
+            }
+        });
+    }
+
+    /** Shows the chosen section's transactions between the two dates, both included. */
+    @FXML
+    private void showTransactions() {
+        Section section = sectionChoice.getValue();
+        if (fromDate.getValue() == null || toDate.getValue() == null) return;
+        long from = fromDate.getValue().atStartOfDay(zone).toInstant().toEpochMilli();
+        long to = toDate.getValue().plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        int asked = ++transactionQuery;
+        io.execute(() -> {
+            try {
+                LedgerSnapshot.Transactions found = store.between(section, from, to);
+                Platform.runLater(() -> {
+                    if (asked != transactionQuery) return;
+                    transactionTable.setItems(FXCollections.observableList(transactions(found)));
+                });
+            } catch (IOException e) {
+                Platform.runLater(() -> failed(e));
+            }
+        });
+    }
+
+    private PagedRows.PageReader<SavedRow> reader(Section section) {
+        return switch (section) {
+            case INCOME -> (from, count) -> numbered(from, store.incomes(from, count),
+                    (index, row) -> new SavedRow(index, row.source(), row.amount(), null, row.notes()));
+            case EXPENSE -> (from, count) -> numbered(from, store.expenses(from, count),
+                    (index, row) -> new SavedRow(index, row.category(), row.limit(), row.spent(), row.notes()));
+            case SAVINGS -> (from, count) -> numbered(from, store.savings(from, count),
+                    (index, row) -> new SavedRow(index, row.category(), row.goal(), row.saved(), row.notes()));
+        };
+    }
+
+    private interface Numbering<T> {
+        SavedRow apply(int index, T row);
+    }
+
+    private static <T> List<SavedRow> numbered(int from, List<T> rows, Numbering<T> numbering) {
+        List<SavedRow> numbered = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) numbered.add(numbering.apply(from + i, rows.get(i)));
+        return numbered;
+    }
+
+    /** The transactions as rows, made as the table shows them rather than all at once. */
+    private static List<SavedTransaction> transactions(LedgerSnapshot.Transactions found) {
+        return new AbstractList<>() {
+            @Override
+            public SavedTransaction get(int index) {
+                return new SavedTransaction(found.timestamps()[index], found.rows()[index],
+                        Money.ofCents(found.cents()[index]));
+            }
+
+            @Override
+            public int size() {
+                return found.size();
+            }
+        };
+    }
+
+    private void failed(IOException e) {
+        new Alert(Alert.AlertType.WARNING, "The saved ledger could not be read: " + e.getMessage(),
+                ButtonType.OK).show();
+    }
+
+    private static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> cell(Function<S, T> value) {
+        return data -> new ReadOnlyObjectWrapper<>(data.getValue() == null ? null : value.apply(data.getValue()));
+    }
+}
@@ -0,0 +1,66 @@
+package app.walletpal;
+
+import app.walletpal.core.BudgetEngine;
+import app.walletpal.core.DataManager;
+import app.walletpal.core.Expense;
+import app.walletpal.core.Income;
+import app.walletpal.core.LoadReport;
+import app.walletpal.core.Savings;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Reads the saved ledger on a background thread, then hands the rows to the FX thread
+ * in chunks. Each chunk is one restore into the engine, and the next chunk is only queued once
+ * the previous one has been applied, so the window keeps painting while a large file
+ * fills the tables.
+ */
+public class LedgerLoader extends Task<LoadReport> {
+    private static final int CHUNK_SIZE = 1000;
+
+    private final BudgetEngine engine;
+    private final Path dir;
+
+    private long published;
+    private long total;
+
+    public LedgerLoader(BudgetEngine engine, Path dir) {
+        this.engine = engine;
+        this.dir = dir;
+    }
+
+    @Override
+    protected LoadReport call() throws Exception {
+        updateMessage("Loading data...");
+        ArrayList<Income> loadedIncomes = new ArrayList<>();
+        ArrayList<Expense> loadedExpenses = new ArrayList<>();
+        ArrayList<Savings> loadedSavings = new ArrayList<>();
+        LoadReport report = DataManager.readData(dir, loadedIncomes, loadedExpenses, loadedSavings, engine.getLedger(), true);
+
+        total = (long) loadedIncomes.size() + loadedExpenses.size() + loadedSavings.size();
+        publish(loadedIncomes, engine::restoreIncomes);
+        publish(loadedExpenses, engine::restoreExpenses);
+        publish(loadedSavings, engine::restoreSavings);
+        updateMessage("");
+        return report;
+    }
+
+    private <T> void publish(List<T> rows, Consumer<List<T>> target) throws InterruptedException, ExecutionException {
+        for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+            if (isCancelled()) return;
+            List<T> chunk = new ArrayList<>(rows.subList(from, Math.min(from + CHUNK_SIZE, rows.size())));
+            FutureTask<Void> apply = new FutureTask<>(() -> target.accept(chunk), null);
+            Platform.runLater(apply);
+            apply.get();
+            published += chunk.size();
+            updateProgress(published, total);
+        }
+    }
+}
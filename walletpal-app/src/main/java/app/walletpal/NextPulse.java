@@ -0,0 +1,30 @@
+package app.walletpal;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks on the FX thread at the next pulse, just before the scene is laid out and
+ * drawn, all in one go. Safe to call from any thread.
+ */
+final class NextPulse implements Executor {
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            Runnable task;
+            while ((task = tasks.poll()) != null) task.run();
+        }
+    };
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        if (Platform.isFxApplicationThread()) pulse.start();
+        else Platform.runLater(pulse::start);
+    }
+}
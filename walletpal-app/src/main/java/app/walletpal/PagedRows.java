@@ -0,0 +1,118 @@
+package app.walletpal;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Rows of a saved ledger read a page at a time as a table asks for them. A row whose page
+ * has not arrived yet is null; the page is read on {@code io} and its rows are reported as
+ * set in place once they are in, so the visible cells fill. Only the last few pages read
+ * are kept. Shows either every row of a section or only the rows at the given indexes,
+ * such as the rows of one category. Must be used on the FX thread.
+ */
+final class PagedRows<T> extends ObservableListBase<T> {
+    private static final int PAGE_SIZE = 200;
+    private static final int CACHED_PAGES = 16;
+
+    /** Reads up to {@code count} rows starting at row {@code from}. */
+    interface PageReader<T> {
+        List<T> read(int from, int count) throws IOException;
+    }
+
+    private final PageReader<T> reader;
+    private final Executor io;
+    private final Consumer<IOException> onError;
+    /** Row index of each position, or null when position and row index are the same. */
+    private final int[] rows;
+    private final int size;
+    private final Map<Integer, List<T>> pages = new LinkedHashMap<>(CACHED_PAGES * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> reading = new HashSet<>();
+
+    /** All {@code size} rows of a section. */
+    PagedRows(int size, PageReader<T> reader, Executor io, Consumer<IOException> onError) {
+        this(null, size, reader, io, onError);
+    }
+
+    /** Only the rows at {@code rows}, in ascending order. */
+    PagedRows(int[] rows, PageReader<T> reader, Executor io, Consumer<IOException> onError) {
+        this(rows, rows.length, reader, io, onError);
+    }
+
+    private PagedRows(int[] rows, int size, PageReader<T> reader, Executor io, Consumer<IOException> onError) {
+        this.rows = rows;
+        this.size = size;
+        this.reader = reader;
+        this.io = io;
+        this.onError = onError;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        int page = index / PAGE_SIZE;
+        List<T> loaded = pages.get(page);
+        if (loaded == null) {
+            read(page);
+            return null;
+        }
+        int at = index - page * PAGE_SIZE;
+        return at < loaded.size() ? loaded.get(at) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void read(int page) {
+        if (!reading.add(page)) return;
+        int from = page * PAGE_SIZE;
+        int to = Math.min(size, from + PAGE_SIZE);
+        io.execute(() -> {
+            try {
+                List<T> loaded = readPositions(from, to);
+                Platform.runLater(() -> arrived(page, from, loaded));
+            } catch (IOException e) {
+                // The page stays marked as being read, so a failing file is reported once.
+                Platform.runLater(() -> onError.accept(e));
+            }
+        });
+    }
+
+    /** The rows at positions {@code from} to {@code to}, read in runs of adjacent rows. */
+    private List<T> readPositions(int from, int to) throws IOException {
+        if (rows == null) return reader.read(from, to - from);
+        List<T> loaded = new ArrayList<>(to - from);
+        for (int start = from; start < to; ) {
+            int end = start + 1;
+            while (end < to && rows[end] == rows[end - 1] + 1) end++;
+            loaded.addAll(reader.read(rows[start], end - start));
+            start = end;
+        }
+        return loaded;
+    }
+
+    private void arrived(int page, int from, List<T> loaded) {
+        reading.remove(page);
+        pages.put(page, loaded);
+        if (loaded.isEmpty()) return;
+        beginChange();
+        for (int i = 0; i < loaded.size(); i++) nextSet(from + i, null);
+        endChange();
+    }
+}
@@ -0,0 +1,56 @@
+package app.walletpal;
+
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Edit dialog for one kind of row, built once and refilled for every row it edits.
+ * Must be created and used on the FX thread.
+ */
+class RowEditor<T> {
+    private final Dialog<ButtonType> dialog = new Dialog<>();
+    private final GridPane grid = new GridPane();
+    private final List<TextField> fields = new ArrayList<>();
+    private final List<Function<T, String>> readers = new ArrayList<>();
+    private final BiConsumer<T, String[]> save;
+
+    /** {@code save} receives the row and the field texts, in the order the fields were added. */
+    RowEditor(String title, BiConsumer<T, String[]> save) {
+        this.save = save;
+        grid.setHgap(10);
+        grid.setVgap(10);
+        dialog.setTitle(title);
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+    }
+
+    RowEditor<T> field(String label, Function<T, String> reader) {
+        TextField field = new TextField();
+        grid.add(new Label(label), 0, fields.size());
+        grid.add(field, 1, fields.size());
+        fields.add(field);
+        readers.add(reader);
+        return this;
+    }
+
+    void edit(T row) {
+        for (int i = 0; i < fields.size(); i++) {
+            fields.get(i).setText(readers.get(i).apply(row));
+        }
+        if (dialog.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) return;
+
+        String[] values = new String[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = fields.get(i).getText();
+        }
+        save.accept(row, values);
+    }
+}
@@ -0,0 +1,81 @@
+package app.walletpal;
+
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * An observable array list that reports bulk work as one change: rows changed in place,
+ * rows inserted together and rows removed at a set of indexes each reach listeners as a
+ * single change however many rows they touch.
+ */
+final class RowList<T> extends ModifiableObservableListBase<T> {
+    private final ArrayList<T> rows = new ArrayList<>();
+
+    @Override
+    public T get(int index) {
+        return rows.get(index);
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    @Override
+    protected void doAdd(int index, T element) {
+        rows.add(index, element);
+    }
+
+    @Override
+    protected T doSet(int index, T element) {
+        return rows.set(index, element);
+    }
+
+    @Override
+    protected T doRemove(int index) {
+        return rows.remove(index);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> added) {
+        if (added.isEmpty()) return false;
+        rows.addAll(index, added);
+        modCount++;
+        beginChange();
+        nextAdd(index, index + added.size());
+        endChange();
+        return true;
+    }
+
+    /** Removes the rows at {@code indexes}, in ascending order, in one pass. */
+    void removeAt(int[] indexes) {
+        if (indexes.length == 0) return;
+        beginChange();
+        int write = indexes[0];
+        int next = 0;
+        for (int read = indexes[0]; read < rows.size(); read++) {
+            if (next < indexes.length && indexes[next] == read) {
+                nextRemove(read - next, rows.get(read));
+                next++;
+            } else {
+                rows.set(write++, rows.get(read));
+            }
+        }
+        rows.subList(write, rows.size()).clear();
+        modCount++;
+        endChange();
+    }
+
+    /** Reports the rows at {@code indexes} as changed in place, as setting each again would. */
+    void changed(BitSet indexes) {
+        if (indexes.isEmpty()) return;
+        beginChange();
+        for (int i = indexes.nextSetBit(0); i >= 0 && i < rows.size(); i = indexes.nextSetBit(i + 1)) {
+            nextSet(i, rows.get(i));
+        }
+        endChange();
+    }
+}
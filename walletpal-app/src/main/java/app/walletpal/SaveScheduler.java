@@ -0,0 +1,250 @@
+package app.walletpal;
+
+import app.walletpal.core.BudgetEngine;
+import app.walletpal.core.BudgetListener;
+import app.walletpal.core.ChangeJournal;
+import app.walletpal.core.DirtyRows;
+import app.walletpal.core.LedgerSnapshot;
+import app.walletpal.core.Money;
+import app.walletpal.core.Section;
+import javafx.animation.Animation;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+
+/**
+ * Persists engine changes off the FX thread. Every change is appended to the
+ * {@link ChangeJournal} as one small record; once enough records have piled up and the
+ * ledger has been quiet for a short while, or at the latest a few seconds after they
+ * did, a full snapshot is written and the journal is cleared. Journal appends and snapshot writes share one background thread, so they
+ * reach the disk in the order they were made. Records made while the thread is busy are
+ * appended together with one flush, so a large batch such as an import costs a few writes
+ * rather than one per transaction.
+ *
+ * <p>Edits are tracked by {@link DirtyRows} and journalled once per pulse, one record per
+ * edited row however often it changed. Snapshots are written once the journal holds a
+ * set share of the budget's size, so the cost of saving follows the number of changes,
+ * not the size of the ledger.
+ */
+public class SaveScheduler implements BudgetListener {
+    private static final Duration QUIET_PERIOD = Duration.millis(500);
+    /** Longest a due snapshot waits for a quiet period while changes keep coming. */
+    private static final Duration MAX_DELAY = Duration.seconds(5);
+    private static final int COMPACT_AFTER_RECORDS = 500;
+    /** Snapshot once the journal holds at least one record per this many rows and transactions. */
+    private static final int COMPACT_SHARE = 8;
+
+    /** Writes a full snapshot where the budget is kept. */
+    public interface SnapshotWriter {
+        void write(LedgerSnapshot snapshot) throws IOException;
+    }
+
+    private final BudgetEngine engine;
+    private final Path dir;
+    private final SnapshotWriter snapshotWriter;
+    private final PauseTransition debounce = new PauseTransition(QUIET_PERIOD);
+    private final PauseTransition deadline = new PauseTransition(MAX_DELAY);
+    private final AtomicReference<LedgerSnapshot> pending = new AtomicReference<>();
+    private final ChangeJournal journal;
+    private final ConcurrentLinkedQueue<Pending> unwritten = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean appendQueued = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "walletpal-save");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Pending(long sequence, String record) {}
+
+    // writer thread only
+    private long appendedThrough;
+
+    // FX thread only
+    private long sequence;
+    private int recordsSinceSnapshot;
+    private DirtyRows edited;
+    private boolean editsQueued;
+
+    /** Journals into {@code dir}, where {@code snapshotWriter} also keeps the snapshots. */
+    public SaveScheduler(BudgetEngine engine, Path dir, SnapshotWriter snapshotWriter) {
+        this.engine = engine;
+        this.dir = dir;
+        this.snapshotWriter = snapshotWriter;
+        this.journal = new ChangeJournal(dir);
+        debounce.setOnFinished(e -> submitSnapshot());
+        deadline.setOnFinished(e -> submitSnapshot());
+    }
+
+    /**
+     * Starts journalling engine changes, numbered after the last change recovered at load
+     * time. A journal left over from the previous run is folded into a fresh snapshot
+     * right away.
+     */
+    public void start(long lastSequence) {
+        sequence = lastSequence;
+        edited = new DirtyRows(engine);
+        engine.addListener(this);
+        if (ChangeJournal.exists(dir)) {
+            recordsSinceSnapshot = COMPACT_AFTER_RECORDS;
+            submitSnapshot();
+        }
+    }
+
+    @Override
+    public void added(Section section, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int index = i;
+            switch (section) {
+                case INCOME -> record(seq -> ChangeJournal.added(seq, engine.getIncomes().get(index), index));
+                case EXPENSE -> record(seq -> ChangeJournal.added(seq, engine.getExpenses().get(index), index));
+                case SAVINGS -> record(seq -> ChangeJournal.added(seq, engine.getSavings().get(index), index));
+            }
+        }
+    }
+
+    @Override
+    public void removed(Section section, int[] indexes) {
+        // Highest first, so each index is still valid when its record is replayed.
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            int index = indexes[i];
+            record(seq -> ChangeJournal.removed(seq, section, index, 1));
+        }
+    }
+
+    @Override
+    public void updated(Section section, int index) {
+        if (!editsQueued) {
+            editsQueued = true;
+            Platform.runLater(this::recordEdits);
+        }
+    }
+
+    /**
+     * Journals each edited row's current state at its current index. Records made since
+     * the edit, such as removals around the row, replay first, so the index still holds.
+     */
+    private void recordEdits() {
+        editsQueued = false;
+        if (edited.isEmpty()) return;
+        for (int index : edited.drain(Section.INCOME)) {
+            record(seq -> ChangeJournal.edited(seq, engine.getIncomes().get(index), index));
+        }
+        for (int index : edited.drain(Section.EXPENSE)) {
+            record(seq -> ChangeJournal.edited(seq, engine.getExpenses().get(index), index));
+        }
+        for (int index : edited.drain(Section.SAVINGS)) {
+            record(seq -> ChangeJournal.edited(seq, engine.getSavings().get(index), index));
+        }
+    }
+
+    @Override
+    public void transacted(Section section, int index, long cents, long timestamp) {
+        record(seq -> ChangeJournal.spent(seq, section, index, Money.ofCents(cents), timestamp));
+    }
+
+    private int compactAfter() {
+        long size = (long) engine.getIncomes().size() + engine.getExpenses().size() + engine.getSavings().size()
+                + engine.getLedger().size();
+        return (int) Math.max(COMPACT_AFTER_RECORDS, size / COMPACT_SHARE);
+    }
+
+    /** Journals one change. Must be called on the FX thread. */
+    private void record(LongFunction<String> recordFactory) {
+        ++sequence;
+        unwritten.add(new Pending(sequence, recordFactory.apply(sequence)));
+        if (!appendQueued.getAndSet(true)) {
+            writer.execute(this::appendUnwritten);
+        }
+
+        if (++recordsSinceSnapshot >= compactAfter()) {
+            // Each record pushes the quiet period back; the deadline, started once, does not move.
+            debounce.playFromStart();
+            if (deadline.getStatus() != Animation.Status.RUNNING) deadline.playFromStart();
+        }
+    }
+
+    private void appendUnwritten() {
+        appendQueued.set(false);
+        List<String> records = new ArrayList<>();
+        for (Pending next; (next = unwritten.poll()) != null; ) {
+            records.add(next.record());
+            appendedThrough = next.sequence();
+        }
+        if (records.isEmpty()) return;
+        try {
+            journal.append(records);
+        } catch (IOException e) {
+            System.err.println("Error writing journal: " + e.getMessage());
+        }
+    }
+
+    /** Writes a final snapshot and waits for the writer to finish. Must be called on the FX thread. */
+    public void shutdown() {
+        debounce.stop();
+        deadline.stop();
+        submitSnapshot();
+        writer.execute(() -> {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+        });
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("Timed out waiting for pending save to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submitSnapshot() {
+        debounce.stop();
+        deadline.stop();
+        if (edited != null) recordEdits();
+        if (recordsSinceSnapshot == 0) return;
+        recordsSinceSnapshot = 0;
+
+        // The copy is taken here because the engine belongs to the FX thread. It is linear
+        // in the budget's size, but it is only made once the journal holds a share of that
+        // size, so it costs a constant amount per recorded change.
+        // Only the newest snapshot matters; a queued older one is simply replaced.
+        if (pending.getAndSet(LedgerSnapshot.of(engine, sequence)) == null) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    private void writePending() {
+        LedgerSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null) return;
+        try {
+            snapshotWriter.write(snapshot);
+        } catch (IOException e) {
+            System.err.println("Error saving data: " + e.getMessage());
+            return;
+        }
+
+        // Clear the journal only if the snapshot covers everything in it; a record appended
+        // later that the snapshot also covers is skipped on replay by its sequence number.
+        if (appendedThrough > snapshot.getSequence()) return;
+        try {
+            journal.reset();
+        } catch (IOException e) {
+            System.err.println("Error clearing journal: " + e.getMessage());
+        }
+    }
+}
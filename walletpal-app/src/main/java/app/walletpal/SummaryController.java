@@ -0,0 +1,189 @@
+package app.walletpal;
+
+import app.walletpal.core.BudgetRollups;
+import app.walletpal.core.Money;
+import app.walletpal.core.Section;
+import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.StackedBarChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Label;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SummaryController {
+
+    @FXML private Label totalIncomeLabel;
+    @FXML private Label totalExpensesLabel;
+    @FXML private Label totalSpentLabel;
+    @FXML private Label totalSavedLabel;
+    @FXML private Label netBalanceLabel;
+    @FXML private Label budgetUtilizationLabel;
+    @FXML private Label remainingBudgetLabel;
+    @FXML private Label savingsProgressLabel;
+    @FXML private StackedBarChart<String, Number> budgetChart;
+    @FXML private StackedBarChart<String, Number> categoryChart;
+    @FXML private LineChart<String, Number> trendChart;
+
+    private static final int MONTHS = 12;
+    /** Categories charted on their own; the rest are added up as "Other". */
+    private static final int TOP_CATEGORIES = 8;
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yy");
+
+    private final XYChart.Data<String, Number> income = new XYChart.Data<>("Income", 0);
+    private final XYChart.Data<String, Number> expenseSpent = new XYChart.Data<>("Expense", 0);
+    private final XYChart.Data<String, Number> expenseRemaining = new XYChart.Data<>("Expense", 0);
+    private final XYChart.Data<String, Number> savingsSaved = new XYChart.Data<>("Savings", 0);
+    private final XYChart.Data<String, Number> savingsRemaining = new XYChart.Data<>("Savings", 0);
+
+    /** Redraws once on the next pulse, however many totals changed since the last one. */
+    private final AnimationTimer redraw = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            refresh();
+        }
+    };
+    private final InvalidationListener scheduleRedraw = observable -> redraw.start();
+
+    private BudgetTotals totals;
+    private BudgetRollups rollups;
+
+    /**
+     * Shows {@code totals} and the spending history in {@code rollups}, and keeps following
+     * them until the window is gone. {@code rows} only signals that something changed, such
+     * as a renamed category, that leaves the totals as they were.
+     */
+    public void setData(BudgetTotals totals, BudgetRows rows, BudgetRollups rollups) {
+        this.totals = totals;
+        this.rollups = rollups;
+        createChart();
+        categoryChart.setAnimated(false);
+        trendChart.setAnimated(false);
+        refresh();
+
+        // Weak, so a closed summary window does not stay reachable from the totals. The
+        // chart holds on to this controller for as long as the window is alive.
+        budgetChart.getProperties().put(SummaryController.class, this);
+        InvalidationListener listener = new WeakInvalidationListener(scheduleRedraw);
+        totals.totalIncomeProperty().addListener(listener);
+        totals.totalExpenseLimitsProperty().addListener(listener);
+        totals.totalSpentProperty().addListener(listener);
+        totals.totalSavingsGoalsProperty().addListener(listener);
+        totals.totalSavedProperty().addListener(listener);
+        rows.getExpenses().addListener(listener);
+        rows.getSavings().addListener(listener);
+    }
+
+    private void createChart() {
+        budgetChart.setAnimated(false);
+        budgetChart.getData().setAll(List.of(
+                series("Income", income),
+                series("Expense - Spent", expenseSpent),
+                series("Expense - Remaining", expenseRemaining),
+                series("Savings - Saved", savingsSaved),
+                series("Savings - Remaining", savingsRemaining)));
+    }
+
+    private static XYChart.Series<String, Number> series(String name, XYChart.Data<String, Number> data) {
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName(name);
+        series.getData().add(data);
+        return series;
+    }
+
+    /** Updates the labels and the existing chart bars and points in place. */
+    private void refresh() {
+        Money totalIncome = totals.getTotalIncome();
+        Money expenseLimits = totals.getTotalExpenseLimits();
+        Money spent = totals.getTotalSpent();
+        Money savingsGoals = totals.getTotalSavingsGoals();
+        Money saved = totals.getTotalSaved();
+        Money allocated = expenseLimits.plus(savingsGoals);
+        Money netBalance = totalIncome.minus(spent);
+
+        totalIncomeLabel.setText("Total Income: $" + totalIncome);
+        totalExpensesLabel.setText("Total Expenses: $" + expenseLimits);
+        totalSpentLabel.setText("Actual Spent: $" + spent);
+        totalSavedLabel.setText("Total Saved: $" + saved);
+        netBalanceLabel.setText("Net Balance: $" + netBalance);
+        budgetUtilizationLabel.setText(String.format("Utilization: %.1f%%",
+                Money.percent(allocated.cents(), totalIncome.cents())));
+        remainingBudgetLabel.setText("Unallocated: $" + totalIncome.minus(allocated));
+        savingsProgressLabel.setText(String.format("Savings Progress: %.1f%%",
+                Money.percent(saved.cents(), savingsGoals.cents())));
+        netBalanceLabel.setStyle(netBalance.isNegative()
+                ? "-fx-text-fill: red; -fx-font-weight: bold;"
+                : "-fx-text-fill: green; -fx-font-weight: bold;");
+
+        income.setYValue(totalIncome.toDouble());
+        expenseSpent.setYValue(spent.toDouble());
+        expenseRemaining.setYValue(Math.max(0, expenseLimits.minus(spent).toDouble()));
+        savingsSaved.setYValue(saved.toDouble());
+        savingsRemaining.setYValue(Math.max(0, savingsGoals.minus(saved).toDouble()));
+
+        refreshHistory();
+    }
+
+    /** Monthly spending by category and the spent and saved trend, read from the rollups' month buckets. */
+    private void refreshHistory() {
+        YearMonth to = YearMonth.now();
+        YearMonth from = to.minusMonths(MONTHS - 1);
+
+        Map<String, double[]> byCategory = new LinkedHashMap<>();
+        List<String> categories = rollups.categories(Section.EXPENSE);
+        for (int i = 0; i < categories.size(); i++) {
+            String name = i < TOP_CATEGORIES ? categories.get(i) : "Other";
+            add(byCategory.computeIfAbsent(name, n -> new double[MONTHS]), from,
+                    rollups.monthly(Section.EXPENSE, categories.get(i), from, to));
+        }
+        show(categoryChart, from, byCategory);
+
+        Map<String, double[]> trend = new LinkedHashMap<>();
+        add(trend.computeIfAbsent("Spent", n -> new double[MONTHS]), from, rollups.monthly(Section.EXPENSE, from, to));
+        add(trend.computeIfAbsent("Saved", n -> new double[MONTHS]), from, rollups.monthly(Section.SAVINGS, from, to));
+        show(trendChart, from, trend);
+    }
+
+    private static void add(double[] values, YearMonth from, Map<YearMonth, Money> months) {
+        months.forEach((month, amount) -> values[(int) from.until(month, ChronoUnit.MONTHS)]
+                += amount.toDouble());
+    }
+
+    /**
+     * Makes {@code chart} show one series per entry of {@code values}, one point per month
+     * from {@code from}. Series and points already on the chart are updated rather than
+     * replaced, so a redraw does not rebuild its nodes.
+     */
+    private static void show(XYChart<String, Number> chart, YearMonth from, Map<String, double[]> values) {
+        ObservableList<XYChart.Series<String, Number>> data = chart.getData();
+        data.removeIf(series -> !values.containsKey(series.getName()));
+        Map<String, XYChart.Series<String, Number>> shown = new HashMap<>();
+        for (XYChart.Series<String, Number> series : data) shown.put(series.getName(), series);
+
+        values.forEach((name, amounts) -> {
+            XYChart.Series<String, Number> series = shown.get(name);
+            if (series == null) {
+                series = new XYChart.Series<>();
+                series.setName(name);
+                data.add(series);
+            }
+            ObservableList<XYChart.Data<String, Number>> points = series.getData();
+            if (points.size() != MONTHS || !points.get(0).getXValue().equals(MONTH_LABEL.format(from))) {
+                points.clear();
+                for (int i = 0; i < MONTHS; i++) points.add(new XYChart.Data<>(MONTH_LABEL.format(from.plusMonths(i)), 0));
+            }
+            for (int i = 0; i < MONTHS; i++) points.get(i).setYValue(amounts[i]);
+        });
+    }
+}
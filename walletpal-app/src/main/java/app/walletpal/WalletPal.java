@@ -7,15 +7,25 @@ import javafx.stage.Stage;
 
 public class WalletPal extends Application {
 
+    private BudgetController controller;
+
     @Override
     public void start(Stage stage) throws Exception {
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/budget.fxml"));
         Scene scene = new Scene(loader.load());
+        controller = loader.getController();
         stage.setTitle("WalletPal");
         stage.setScene(scene);
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,238 @@
+package app.walletpal;
+
+import app.walletpal.core.BudgetEngine;
+import app.walletpal.core.DataManager;
+import app.walletpal.core.LedgerSnapshot;
+import app.walletpal.core.LoadReport;
+import app.walletpal.core.Money;
+import app.walletpal.core.ProfileInfo;
+import app.walletpal.core.ProfileStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Headless batch run over many households. Every directory below the root that holds a
+ * WalletPal data file is loaded, checked, summarised and saved again, and one report
+ * covers them all. Uses no JavaFX class, so walletpal-core and this class are all it
+ * needs on the class path.
+ *
+ * <pre>
+ * java -cp walletpal-core.jar:walletpal.jar app.walletpal.WalletPalBatch [--check] [--io N] root
+ * java -cp walletpal-core.jar:walletpal.jar app.walletpal.WalletPalBatch --profiles root
+ * </pre>
+ *
+ * Each household is one task. On Java 21 and later every task gets its own virtual
+ * thread; older runtimes share a pool of two threads per core. Either way at most
+ * {@code --io} households (default: one per core) are read or written at once.
+ * {@code --check} loads and reports without saving. {@code --profiles} instead lists the
+ * profiles of the profile store at the root from its index.
+ */
+public final class WalletPalBatch {
+
+    /** What one household came to. Only totals are kept, so the engines can be collected. */
+    private record Result(Path dir, long rows, long income, long limits, long spent, long goals, long saved,
+                          List<String> problems, boolean written, String error) {
+        static Result of(Path dir, BudgetEngine engine, List<String> problems, boolean written) {
+            return new Result(dir, engine.getIncomes().size() + engine.getExpenses().size() + engine.getSavings().size(),
+                    engine.getTotalIncome().cents(), engine.getTotalExpenseLimits().cents(),
+                    engine.getTotalSpent().cents(), engine.getTotalSavingsGoals().cents(),
+                    engine.getTotalSaved().cents(), problems, written, null);
+        }
+
+        static Result failed(Path dir, String error) {
+            return new Result(dir, 0, 0, 0, 0, 0, 0, List.of(), false, error);
+        }
+    }
+
+    private final Semaphore io;
+    private final boolean save;
+
+    private WalletPalBatch(int ioLimit, boolean save) {
+        this.io = new Semaphore(ioLimit);
+        this.save = save;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int ioLimit = Runtime.getRuntime().availableProcessors();
+        boolean save = true;
+        boolean profiles = false;
+        Path root = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--check" -> save = false;
+                case "--profiles" -> profiles = true;
+                case "--io" -> ioLimit = i + 1 < args.length ? parseCount(args[++i]) : 0;
+                default -> root = Path.of(args[i]);
+            }
+        }
+        if (ioLimit < 1) usage("--io needs a whole number of at least 1");
+        if (root == null || !Files.isDirectory(root)) usage(null);
+        if (profiles) {
+            listProfiles(new ProfileStore(root));
+            return;
+        }
+
+        List<Path> households;
+        try (Stream<Path> walk = Files.walk(root)) {
+            households = walk.filter(Files::isDirectory).filter(DataManager::hasData).sorted().toList();
+        }
+        long started = System.nanoTime();
+        List<Result> results = new WalletPalBatch(ioLimit, save).run(households);
+        boolean failed = report(results, System.nanoTime() - started);
+        System.exit(failed ? 1 : 0);
+    }
+
+    /** The number in {@code text}, or 0 if it is not one. */
+    private static int parseCount(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void usage(String error) {
+        if (error != null) System.err.println("error: " + error);
+        System.err.println("usage: WalletPalBatch [--check] [--io N] <directory>");
+        System.err.println("       WalletPalBatch --profiles <directory>");
+        System.exit(2);
+    }
+
+    /** Prints one line per profile, read from the store's index. */
+    private static void listProfiles(ProfileStore store) throws IOException {
+        List<ProfileInfo> profiles = store.list();
+        for (ProfileInfo info : profiles) {
+            System.out.printf("%-24s %6d rows  income %s  spent %s of %s  saved %s of %s%n", info.name(),
+                    info.incomes() + info.expenses() + info.savings(), info.income(), info.spent(),
+                    info.expenseLimits(), info.saved(), info.savingsGoals());
+        }
+        System.out.printf("Profiles:       %d%n", profiles.size());
+    }
+
+    private List<Result> run(List<Path> households) throws InterruptedException, ExecutionException {
+        ExecutorService executor = newExecutor();
+        try {
+            List<Future<Result>> futures = new ArrayList<>(households.size());
+            for (Path dir : households) {
+                futures.add(executor.submit(() -> process(dir)));
+            }
+            List<Result> results = new ArrayList<>(households.size());
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(2 * Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    private Result process(Path dir) {
+        BudgetEngine engine = new BudgetEngine();
+        LoadReport loaded;
+        io.acquireUninterruptibly();
+        try {
+            // A check must leave every file as it found it.
+            loaded = DataManager.loadData(dir, engine, save);
+        } catch (IOException | RuntimeException e) {
+            return Result.failed(dir, "could not load: " + e.getMessage());
+        } finally {
+            io.release();
+        }
+
+        List<String> problems = check(engine, loaded);
+        // Saving would drop the lines that could not be read.
+        if (!save || loaded.hasIssues()) {
+            return Result.of(dir, engine, problems, false);
+        }
+
+        LedgerSnapshot snapshot = LedgerSnapshot.of(engine, loaded.getSequence());
+        io.acquireUninterruptibly();
+        try {
+            DataManager.writeData(dir, snapshot);
+        } catch (IOException | RuntimeException e) {
+            return Result.failed(dir, "could not save: " + e.getMessage());
+        } finally {
+            io.release();
+        }
+        return Result.of(dir, engine, problems, true);
+    }
+
+    private static List<String> check(BudgetEngine engine, LoadReport loaded) {
+        List<String> problems = new ArrayList<>();
+        if (loaded.hasIssues()) {
+            problems.add(loaded.getIssues().size() + " unreadable line(s), not saved");
+        }
+        if (engine.getUnallocated().isNegative()) {
+            problems.add("limits and goals exceed income by " + Money.ofCents(-engine.getUnallocated().cents()));
+        }
+        long overspent = engine.getExpenses().stream().filter(e -> e.getRemaining().isNegative()).count();
+        if (overspent > 0) {
+            problems.add(overspent + " expense(s) over their limit");
+        }
+        return problems;
+    }
+
+    /** Prints every household that needs attention and the totals; returns whether any failed. */
+    private static boolean report(List<Result> results, long elapsedNanos) {
+        int failed = 0;
+        int withProblems = 0;
+        int saved = 0;
+        long rows = 0;
+        long income = 0;
+        long limits = 0;
+        long spent = 0;
+        long goals = 0;
+        long savedTotal = 0;
+
+        for (Result result : results) {
+            if (result.error() != null) {
+                failed++;
+                System.out.println(result.dir() + ": " + result.error());
+                continue;
+            }
+            if (!result.problems().isEmpty()) {
+                withProblems++;
+                System.out.println(result.dir() + ": " + String.join("; ", result.problems()));
+            }
+            if (result.written()) saved++;
+            rows += result.rows();
+            income += result.income();
+            limits += result.limits();
+            spent += result.spent();
+            goals += result.goals();
+            savedTotal += result.saved();
+        }
+
+        double seconds = elapsedNanos / 1e9;
+        System.out.println();
+        System.out.printf("Households:     %d (%d saved, %d with problems, %d failed)%n",
+                results.size(), saved, withProblems, failed);
+        System.out.printf("Rows:           %d%n", rows);
+        System.out.printf("Income:         %s%n", Money.ofCents(income));
+        System.out.printf("Expense limits: %s%n", Money.ofCents(limits));
+        System.out.printf("Spent:          %s%n", Money.ofCents(spent));
+        System.out.printf("Savings goals:  %s%n", Money.ofCents(goals));
+        System.out.printf("Saved:          %s%n", Money.ofCents(savedTotal));
+        System.out.printf("Elapsed:        %.2f s (%.0f households/s)%n", seconds,
+                seconds > 0 ? results.size() / seconds : 0);
+        return failed > 0;
+    }
+}
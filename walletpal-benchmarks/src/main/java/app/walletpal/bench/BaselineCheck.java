@@ -0,0 +1,71 @@
+package app.walletpal.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against the baseline kept in the repository.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar app.walletpal.bench.BaselineCheck baseline.json result.json [tolerance%]
+ * </pre>
+ *
+ * Prints the change for every benchmark present in both files and exits with status 1
+ * if any got slower than the tolerance allows (default 10%).
+ */
+public final class BaselineCheck {
+
+    private BaselineCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineCheck <baseline.json> <result.json> [tolerance%]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, JsonNode> baseline = scores(new File(args[0]));
+        Map<String, JsonNode> current = scores(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %12s%n", entry.getKey(), "new");
+                continue;
+            }
+            double old = before.get("score").asDouble();
+            double now = entry.getValue().get("score").asDouble();
+            String unit = entry.getValue().get("scoreUnit").asText();
+            // Time per operation: lower is better. Operations per time: higher is better.
+            double slowdown = unit.endsWith("/op") ? (now - old) / old : (old - now) / old;
+            boolean regressed = slowdown * 100 > tolerance;
+            if (regressed) regressions++;
+            System.out.printf("%-70s %12.3f -> %12.3f %-8s %+7.1f%%%s%n", entry.getKey(), old, now, unit,
+                    slowdown * 100, regressed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) slower than the baseline by more than " + tolerance + "%");
+            System.exit(1);
+        }
+    }
+
+    /** Primary metric of every run, keyed by benchmark name and parameters. */
+    private static Map<String, JsonNode> scores(File file) throws IOException {
+        Map<String, JsonNode> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText());
+            JsonNode params = run.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(p -> key.append(' ').append(p.getKey()).append('=')
+                        .append(p.getValue().asText()));
+            }
+            scores.put(key.toString(), run.get("primaryMetric"));
+        }
+        return scores;
+    }
+}
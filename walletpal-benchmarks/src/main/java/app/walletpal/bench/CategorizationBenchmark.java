@@ -0,0 +1,73 @@
+package app.walletpal.bench;
+
+import app.walletpal.core.CategoryRules;
+import app.walletpal.core.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Categorizing statement entries against {@link CategoryRules} of growing size, with a
+ * mix of contains, prefix and amount rules and a few regular expressions, and the cost
+ * of adding a rule to a compiled set. The rules are rebuilt every iteration, since
+ * adding rules grows them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategorizationBenchmark {
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Param({"100", "5000"})
+    public int rules;
+
+    private CategoryRules compiled;
+    private String[] descriptions;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Random random = new Random(42);
+        compiled = new CategoryRules();
+        for (int i = 0; i < rules; i++) {
+            String category = "Category " + (i % 50);
+            switch (i % 10) {
+                case 0 -> compiled.addPrefix(word(random, 5), category);
+                case 1 -> compiled.addAmountRange(Money.ofCents(random.nextInt(50_000)),
+                        Money.ofCents(50_000 + random.nextInt(50_000)), category);
+                default -> compiled.add(word(random, 6), category);
+            }
+        }
+        for (int i = 0; i < 5; i++) compiled.addRegex("^POS \\d{4} " + word(random, 3), "Regex " + i);
+
+        descriptions = new String[1024];
+        for (int i = 0; i < descriptions.length; i++) {
+            descriptions[i] = "POS " + (1000 + random.nextInt(9000)) + " " + word(random, 24) + " SEATTLE WA";
+        }
+        compiled.categorize("", 0);
+    }
+
+    @Benchmark
+    public String categorize() {
+        next = (next + 1) & (descriptions.length - 1);
+        return compiled.categorize(descriptions[next], next * 97L);
+    }
+
+    /** Adds a rule, then categorizes once, which relinks the automaton. */
+    @Benchmark
+    public String addRuleAndCategorize() {
+        next = (next + 1) & (descriptions.length - 1);
+        compiled.add("NEW RULE " + next, "New");
+        return compiled.categorize(descriptions[next], next * 97L);
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        return word.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package app.walletpal.bench;
+
+import app.walletpal.core.BudgetEngine;
+import app.walletpal.core.Expense;
+import app.walletpal.core.LedgerBatch;
+import app.walletpal.core.Money;
+import app.walletpal.core.Savings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Deterministic budgets for the benchmarks, built on the core engine alone. */
+final class Fixtures {
+    /** Start of the synthetic transaction timeline: 2024-01-01T00:00Z. */
+    static final long EPOCH = 1_704_067_200_000L;
+    static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static final int CATEGORIES = 500;
+    private static final long GOAL = 500_000;
+
+    final BudgetEngine engine = new BudgetEngine();
+
+    /**
+     * {@code rows} expense rows with {@code spendsPerRow} dated spends each, plus one
+     * income and one savings goal per ten expense rows, and a salary covering whatever
+     * those incomes leave unallocated.
+     */
+    Fixtures(int rows, int spendsPerRow) {
+        long allocated = 0;
+        LedgerBatch incomes = new LedgerBatch(engine);
+        for (int i = 0; i < rows; i++) {
+            allocated += limit(i);
+            if (i % 10 == 0) {
+                incomes.addIncome("Source " + (i % CATEGORIES), Money.ofCents(income(i)), "");
+                allocated += GOAL - income(i);
+            }
+        }
+        incomes.addIncome("Salary", Money.ofCents(Math.max(0, allocated)), "");
+        // Limits and goals are reserved as they are staged, so the income goes in first.
+        incomes.commit();
+
+        LedgerBatch batch = new LedgerBatch(engine);
+        for (int i = 0; i < rows; i++) {
+            batch.addExpense("Category " + (i % CATEGORIES), Money.ofCents(limit(i)),
+                    i % 3 == 0 ? "groceries and sundries" : "");
+            if (i % 10 == 0) batch.addSavings("Goal " + (i % CATEGORIES), Money.ofCents(GOAL), "");
+        }
+        batch.commit();
+
+        for (int i = 0; i < rows; i++) {
+            Expense expense = engine.getExpenses().get(i);
+            for (int s = 0; s < spendsPerRow; s++) {
+                engine.spend(expense, Money.ofCents(100 + (i + s) % 2_500), timestamp(i, s));
+            }
+            if (i % 10 == 0) {
+                Savings saving = engine.getSavings().get(i / 10);
+                engine.deposit(saving, Money.ofCents(1_000 + i % 5_000), timestamp(i, 0));
+            }
+        }
+    }
+
+    private static long limit(int row) {
+        return 10_000 + row % 90_000;
+    }
+
+    private static long income(int row) {
+        return 250_000 + row % 10_000;
+    }
+
+    /** Spreads transactions over a year, in roughly increasing time order. */
+    static long timestamp(int row, int spend) {
+        return EPOCH + (row * 7L + spend * 13L) % 365 * DAY + row % 86_400 * 1000L;
+    }
+
+    /** Data directory the forked JVMs were pointed at, created if missing. */
+    static Path dataDir() throws IOException {
+        Path dir = Path.of(System.getProperty("walletpal.dataDir", "target/bench-data"));
+        Files.createDirectories(dir);
+        return dir;
+    }
+}
@@ -0,0 +1,61 @@
+package app.walletpal.bench;
+
+import app.walletpal.core.DataManager;
+import app.walletpal.core.Expense;
+import app.walletpal.core.Income;
+import app.walletpal.core.LedgerSnapshot;
+import app.walletpal.core.LoadReport;
+import app.walletpal.core.Savings;
+import app.walletpal.core.TransactionLedger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a budget out and reading it back, as a JSON export against the text snapshot
+ * in {@link DataManager}. Each round trip goes through a file, as the app does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-Dwalletpal.dataDir=target/bench-data"})
+public class JsonRoundTripBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"text", "json"})
+    public String format;
+
+    private LedgerSnapshot snapshot;
+    private Path dir;
+    private Path json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        snapshot = LedgerSnapshot.of(new Fixtures(rows, 3).engine);
+        dir = Files.createDirectories(Fixtures.dataDir().resolve("round-trip"));
+        Files.deleteIfExists(dir.resolve("walletpal_data.journal"));
+        json = dir.resolve("export.json");
+    }
+
+    @Benchmark
+    public LoadReport roundTrip() throws IOException {
+        ArrayList<Income> incomes = new ArrayList<>();
+        ArrayList<Expense> expenses = new ArrayList<>();
+        ArrayList<Savings> savings = new ArrayList<>();
+        TransactionLedger ledger = new TransactionLedger();
+        if (format.equals("json")) {
+            DataManager.exportJson(snapshot, json);
+            return DataManager.importJson(json, incomes, expenses, savings, ledger);
+        }
+        DataManager.writeData(dir, snapshot);
+        return DataManager.readData(dir, incomes, expenses, savings, ledger);
+    }
+}
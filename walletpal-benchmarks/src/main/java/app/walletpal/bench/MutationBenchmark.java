@@ -0,0 +1,74 @@
+package app.walletpal.bench;
+
+import app.walletpal.core.BudgetEngine;
+import app.walletpal.core.BudgetListener;
+import app.walletpal.core.Expense;
+import app.walletpal.core.Money;
+import app.walletpal.core.Savings;
+import app.walletpal.core.Section;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording spends and deposits through the {@link BudgetEngine}, with a listener
+ * attached as the app's are, and reading them back by date range. The fixture is
+ * rebuilt every iteration so the ledger does not grow without bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class MutationBenchmark {
+    private static final Money AMOUNT = Money.ofCents(1_250);
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private Fixtures fixtures;
+    private int next;
+    private long clock;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        fixtures = new Fixtures(rows, 10);
+        fixtures.engine.addListener(new BudgetListener() {});
+        clock = Fixtures.EPOCH + 366 * Fixtures.DAY;
+    }
+
+    @Benchmark
+    public Money addSpent() {
+        Expense expense = fixtures.engine.getExpenses().get(nextRow(fixtures.engine.getExpenses().size()));
+        fixtures.engine.spend(expense, AMOUNT, clock += 1000);
+        return expense.getRemaining();
+    }
+
+    @Benchmark
+    public Money addSaved() {
+        Savings saving = fixtures.engine.getSavings().get(nextRow(fixtures.engine.getSavings().size()));
+        fixtures.engine.deposit(saving, AMOUNT, clock += 1000);
+        return saving.getMoreToGo();
+    }
+
+    /** One row's spending over a 30-day window. */
+    @Benchmark
+    public Money spentBetween() {
+        Expense expense = fixtures.engine.getExpenses().get(nextRow(fixtures.engine.getExpenses().size()));
+        long from = Fixtures.EPOCH + (next % 300) * Fixtures.DAY;
+        return expense.getSpentBetween(from, from + 30 * Fixtures.DAY);
+    }
+
+    /** Spending across every row over a 30-day window. */
+    @Benchmark
+    public long ledgerSumBetween() {
+        long from = Fixtures.EPOCH + (nextRow(300)) * Fixtures.DAY;
+        return fixtures.engine.getLedger().sum(Section.EXPENSE, from, from + 30 * Fixtures.DAY);
+    }
+
+    private int nextRow(int size) {
+        next = (next + 7919) % size;
+        return next;
+    }
+}
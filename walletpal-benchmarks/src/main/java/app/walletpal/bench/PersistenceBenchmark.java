@@ -0,0 +1,55 @@
+package app.walletpal.bench;
+
+import app.walletpal.core.BudgetEngine;
+import app.walletpal.core.DataManager;
+import app.walletpal.core.LedgerSnapshot;
+import app.walletpal.core.LoadReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full snapshot save and load through {@link DataManager}. Runs in the text format;
+ * append {@code -jvmArgsAppend -Dwalletpal.format=binary} for the binary one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-Dwalletpal.dataDir=target/bench-data"})
+public class PersistenceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Fixtures fixtures;
+    private LedgerSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Files.deleteIfExists(Fixtures.dataDir().resolve("walletpal_data.journal"));
+        fixtures = new Fixtures(rows, 1);
+        snapshot = LedgerSnapshot.of(fixtures.engine);
+        DataManager.saveData(snapshot);
+    }
+
+    /** The part of a save that runs on the FX thread. */
+    @Benchmark
+    public LedgerSnapshot snapshot() {
+        return LedgerSnapshot.of(fixtures.engine);
+    }
+
+    /** The part of a save that runs on the writer thread. */
+    @Benchmark
+    public void save() throws IOException {
+        DataManager.saveData(snapshot);
+    }
+
+    @Benchmark
+    public LoadReport load() throws IOException {
+        return DataManager.loadData(new BudgetEngine());
+    }
+}
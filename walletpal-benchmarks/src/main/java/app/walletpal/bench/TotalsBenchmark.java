@@ -0,0 +1,59 @@
+package app.walletpal.bench;
+
+import app.walletpal.core.BudgetEngine;
+import app.walletpal.core.Income;
+import app.walletpal.core.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keeping the budget totals current after one edit. {@code streamScan} is the
+ * full recount the controllers used to run on every change and serves as the
+ * reference; {@code incrementalEdit} reads the totals {@link BudgetEngine} keeps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TotalsBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private Fixtures fixtures;
+    private BudgetEngine engine;
+    private Income edited;
+    private boolean flip;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = new Fixtures(rows, 1);
+        engine = fixtures.engine;
+        edited = engine.getIncomes().get(engine.getIncomes().size() / 2);
+        // The fixture allocates all its income; lowering an income needs headroom.
+        engine.addIncome("Headroom", Money.ofCents(100_000), "");
+    }
+
+    @Benchmark
+    public Money streamScan() {
+        edit();
+        long income = engine.getIncomes().stream().mapToLong(i -> i.getAmount().cents()).sum();
+        long limits = engine.getExpenses().stream().mapToLong(e -> e.getLimit().cents()).sum();
+        long goals = engine.getSavings().stream().mapToLong(s -> s.getGoal().cents()).sum();
+        return Money.ofCents(income - limits - goals);
+    }
+
+    @Benchmark
+    public Money incrementalEdit() {
+        edit();
+        return engine.getUnallocated();
+    }
+
+    private void edit() {
+        flip = !flip;
+        engine.updateIncome(edited, edited.getSource(), Money.ofCents(flip ? 300_000 : 250_000), edited.getNotes());
+    }
+}
@@ -0,0 +1,204 @@
+package app.walletpal.core;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned binary snapshot, read through a memory-mapped buffer.
+ *
+ * <pre>
+ * header   int magic 'WPAL', short version, long sequence,
+ *          int strings, int incomes, int expenses, int savings
+ * strings  (int byteLength, UTF-8 bytes) per distinct text value
+ * incomes  int source, long amountCents, int notes
+ * expenses int category, long limitCents, long spentCents, int notes
+ * savings  int category, long goalCents, long savedCents, int notes
+ * spending int count, then (int expenseRow, long timestamp, long cents) per spend
+ * deposits int count, then (int savingsRow, long timestamp, long cents) per deposit
+ * </pre>
+ *
+ * Text fields are indexes into the string table, so a category repeated across many
+ * rows is stored and decoded once. Version 1 files end after the rows; their totals
+ * are loaded as one opening transaction per row.
+ */
+final class BinaryLedgerFormat {
+    private static final int MAGIC = 0x5750414C;
+    private static final short VERSION = 2;
+
+    private BinaryLedgerFormat() {}
+
+    static void write(LedgerSnapshot snapshot, OutputStream target) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (LedgerSnapshot.IncomeRow row : snapshot.getIncomes()) {
+            intern(row.source(), ids, strings);
+            intern(row.notes(), ids, strings);
+        }
+        for (LedgerSnapshot.ExpenseRow row : snapshot.getExpenses()) {
+            intern(row.category(), ids, strings);
+            intern(row.notes(), ids, strings);
+        }
+        for (LedgerSnapshot.SavingsRow row : snapshot.getSavings()) {
+            intern(row.category(), ids, strings);
+            intern(row.notes(), ids, strings);
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(snapshot.getSequence());
+        out.writeInt(strings.size());
+        out.writeInt(snapshot.getIncomes().size());
+        out.writeInt(snapshot.getExpenses().size());
+        out.writeInt(snapshot.getSavings().size());
+
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        for (LedgerSnapshot.IncomeRow row : snapshot.getIncomes()) {
+            out.writeInt(ids.get(row.source()));
+            out.writeLong(row.amount().cents());
+            out.writeInt(ids.get(row.notes()));
+        }
+        for (LedgerSnapshot.ExpenseRow row : snapshot.getExpenses()) {
+            out.writeInt(ids.get(row.category()));
+            out.writeLong(row.limit().cents());
+            out.writeLong(row.spent().cents());
+            out.writeInt(ids.get(row.notes()));
+        }
+        for (LedgerSnapshot.SavingsRow row : snapshot.getSavings()) {
+            out.writeInt(ids.get(row.category()));
+            out.writeLong(row.goal().cents());
+            out.writeLong(row.saved().cents());
+            out.writeInt(ids.get(row.notes()));
+        }
+        writeTransactions(out, snapshot.getSpending());
+        writeTransactions(out, snapshot.getDeposits());
+        out.flush();
+    }
+
+    private static void writeTransactions(DataOutputStream out, LedgerSnapshot.Transactions transactions)
+            throws IOException {
+        out.writeInt(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            out.writeInt(transactions.rows()[i]);
+            out.writeLong(transactions.timestamps()[i]);
+            out.writeLong(transactions.cents()[i]);
+        }
+    }
+
+    /**
+     * Fills the lists from {@code file} and returns the snapshot's journal sequence. A
+     * file that is not a readable snapshot adds an issue and loads nothing.
+     */
+    static long read(Path file, TransactionLedger ledger, ArrayList<Income> incomes, ArrayList<Expense> expenses,
+                     ArrayList<Savings> savings, List<LoadReport.Issue> issues) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer, ledger, incomes, expenses, savings, issues);
+        }
+    }
+
+    private static long read(ByteBuffer in, TransactionLedger ledger, ArrayList<Income> incomes, ArrayList<Expense> expenses,
+                             ArrayList<Savings> savings, List<LoadReport.Issue> issues) {
+        try {
+            if (in.getInt() != MAGIC) {
+                issues.add(new LoadReport.Issue(0, "not a WalletPal binary snapshot"));
+                return 0;
+            }
+            short version = in.getShort();
+            if (version < 1 || version > VERSION) {
+                issues.add(new LoadReport.Issue(0, "unsupported snapshot version " + version));
+                return 0;
+            }
+            long sequence = in.getLong();
+            String[] strings = new String[in.getInt()];
+            int incomeCount = in.getInt();
+            int expenseCount = in.getInt();
+            int savingsCount = in.getInt();
+
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < strings.length; i++) {
+                int length = in.getInt();
+                if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+                in.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            incomes.ensureCapacity(incomes.size() + incomeCount);
+            for (int i = 0; i < incomeCount; i++) {
+                String source = strings[in.getInt()];
+                long amount = in.getLong();
+                incomes.add(new Income(source, amount, strings[in.getInt()]));
+            }
+
+            int firstExpense = expenses.size();
+            long[] spent = new long[expenseCount];
+            expenses.ensureCapacity(firstExpense + expenseCount);
+            for (int i = 0; i < expenseCount; i++) {
+                String category = strings[in.getInt()];
+                long limit = in.getLong();
+                spent[i] = in.getLong();
+                expenses.add(new Expense(ledger, category, limit, strings[in.getInt()]));
+            }
+
+            int firstSaving = savings.size();
+            long[] saved = new long[savingsCount];
+            savings.ensureCapacity(firstSaving + savingsCount);
+            for (int i = 0; i < savingsCount; i++) {
+                String category = strings[in.getInt()];
+                long goal = in.getLong();
+                saved[i] = in.getLong();
+                savings.add(new Savings(ledger, category, goal, strings[in.getInt()]));
+            }
+
+            LedgerSnapshot.Transactions spending = LedgerSnapshot.Transactions.NONE;
+            LedgerSnapshot.Transactions deposits = LedgerSnapshot.Transactions.NONE;
+            if (version >= 2) {
+                spending = readTransactions(in);
+                deposits = readTransactions(in);
+            }
+            DataManager.restoreHistory(expenses.subList(firstExpense, expenses.size()), spent, spending,
+                    savings.subList(firstSaving, savings.size()), saved, deposits, issues);
+            return sequence;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            issues.add(new LoadReport.Issue(0, "binary snapshot is truncated or corrupt"));
+            incomes.clear();
+            expenses.clear();
+            savings.clear();
+            return 0;
+        }
+    }
+
+    private static LedgerSnapshot.Transactions readTransactions(ByteBuffer in) {
+        int count = in.getInt();
+        int[] rows = new int[count];
+        long[] timestamps = new long[count];
+        long[] cents = new long[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = in.getInt();
+            timestamps[i] = in.getLong();
+            cents[i] = in.getLong();
+        }
+        return new LedgerSnapshot.Transactions(rows, timestamps, cents);
+    }
+
+    private static void intern(String value, Map<String, Integer> ids, List<String> strings) {
+        if (!ids.containsKey(value)) {
+            ids.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+}
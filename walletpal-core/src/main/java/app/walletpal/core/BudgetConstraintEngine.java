@@ -0,0 +1,53 @@
+package app.walletpal.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The allocation rule of a {@link BudgetEngine} as one counter: the headroom, income not
+ * yet taken by expense limits, savings goals or outstanding reservations. Anything that
+ * takes income, such as a new limit, a raised goal or a lowered income, first reserves
+ * the amount; anything that gives it back releases it. A reservation is checked and
+ * taken in one compare-and-set, so threads reserving at once never both get the last
+ * of the income, and no lock is held. Thread-safe.
+ */
+public final class BudgetConstraintEngine {
+    private final AtomicLong headroom = new AtomicLong();
+
+    /** Income still free to allocate, in cents; negative if storage held an over-allocated budget. */
+    public long headroom() {
+        return headroom.get();
+    }
+
+    /**
+     * Takes {@code cents} of headroom if that much is free and returns whether it did. A
+     * negative amount gives headroom back and always succeeds.
+     */
+    public boolean tryReserve(long cents) {
+        if (cents <= 0) {
+            release(-cents);
+            return true;
+        }
+        long free;
+        do {
+            free = headroom.get();
+            if (free < cents) return false;
+        } while (!headroom.compareAndSet(free, free - cents));
+        return true;
+    }
+
+    /** Reserves the change from an allocation of {@code from} cents to one of {@code to}, as an edit does. */
+    public boolean tryChange(long from, long to) {
+        return tryReserve(Math.subtractExact(to, from));
+    }
+
+    /** Gives back {@code cents} of headroom taken earlier. */
+    public void release(long cents) {
+        if (cents < 0) throw new IllegalArgumentException("Cannot release a negative amount");
+        headroom.addAndGet(cents);
+    }
+
+    /** Moves the headroom by {@code cents} unchecked, for rows restored from storage and batches. */
+    void adjust(long cents) {
+        headroom.addAndGet(cents);
+    }
+}
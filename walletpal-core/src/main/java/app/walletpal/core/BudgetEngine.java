@@ -0,0 +1,402 @@
+package app.walletpal.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The budget: income sources, expense limits and savings goals with their dated
+ * transactions, the running totals over them, and the rule that limits and goals
+ * together never exceed income. Plain Java with no JavaFX dependency, so it behaves the
+ * same in the app, on the command line and in benchmarks. Every change is reported to
+ * the registered {@link BudgetListener}s.
+ *
+ * <p>Totals are adjusted by each change rather than recounted. Not thread-safe; use an
+ * engine from one thread at a time. The allocation rule is kept by a
+ * {@link BudgetConstraintEngine}, which other threads may reserve headroom from while
+ * the engine is in use.
+ */
+public class BudgetEngine {
+    private final TransactionLedger ledger;
+    private final ArrayList<Income> incomes = new ArrayList<>();
+    private final ArrayList<Expense> expenses = new ArrayList<>();
+    private final ArrayList<Savings> savings = new ArrayList<>();
+    private final List<Income> incomesView = Collections.unmodifiableList(incomes);
+    private final List<Expense> expensesView = Collections.unmodifiableList(expenses);
+    private final List<Savings> savingsView = Collections.unmodifiableList(savings);
+    private final List<BudgetListener> listeners = new ArrayList<>();
+    private final BudgetConstraintEngine constraints = new BudgetConstraintEngine();
+
+    private long income;
+    private long expenseLimits;
+    private long spent;
+    private long savingsGoals;
+    private long saved;
+
+    public BudgetEngine() {
+        this(new TransactionLedger());
+    }
+
+    public BudgetEngine(TransactionLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    public void addListener(BudgetListener listener) { listeners.add(listener); }
+    public void removeListener(BudgetListener listener) { listeners.remove(listener); }
+
+    public TransactionLedger getLedger() { return ledger; }
+    public List<Income> getIncomes() { return incomesView; }
+    public List<Expense> getExpenses() { return expensesView; }
+    public List<Savings> getSavings() { return savingsView; }
+    public BudgetConstraintEngine getConstraints() { return constraints; }
+
+    public Money getTotalIncome() { return Money.ofCents(income); }
+    public Money getTotalExpenseLimits() { return Money.ofCents(expenseLimits); }
+    public Money getTotalSpent() { return Money.ofCents(spent); }
+    public Money getTotalSavingsGoals() { return Money.ofCents(savingsGoals); }
+    public Money getTotalSaved() { return Money.ofCents(saved); }
+
+    /** Income not yet assigned to an expense limit, savings goal or outstanding reservation. */
+    public Money getUnallocated() { return Money.ofCents(constraints.headroom()); }
+
+    private long allocatable() {
+        return income - expenseLimits - savingsGoals;
+    }
+
+    public Income addIncome(String source, Money amount, String notes) {
+        requireText(source, "Please enter a source!");
+        if (!constraints.tryReserve(-amount.cents())) {
+            throw new BudgetException("Cannot add income: Limits and goals would exceed total income!");
+        }
+        Income row = new Income(source, amount.cents(), notes);
+        row.position = incomes.size();
+        incomes.add(row);
+        track(row);
+        fireAdded(Section.INCOME, incomes.size() - 1, incomes.size());
+        fireTotalsChanged();
+        return row;
+    }
+
+    /** @throws BudgetException if the category is blank or the limit exceeds unallocated income */
+    public Expense addExpense(String category, Money limit, String notes) {
+        requireText(category, "Please enter a category!");
+        if (!constraints.tryReserve(limit.cents())) {
+            throw new BudgetException("Cannot add expense: Would exceed total income!");
+        }
+        Expense row = new Expense(ledger, category, limit.cents(), notes);
+        row.position = expenses.size();
+        expenses.add(row);
+        track(row);
+        fireAdded(Section.EXPENSE, expenses.size() - 1, expenses.size());
+        fireTotalsChanged();
+        return row;
+    }
+
+    /** @throws BudgetException if the category is blank or the goal exceeds unallocated income */
+    public Savings addSavings(String category, Money goal, String notes) {
+        requireText(category, "Please enter a category!");
+        if (!constraints.tryReserve(goal.cents())) {
+            throw new BudgetException("Cannot add savings goal: Would exceed total income!");
+        }
+        Savings row = new Savings(ledger, category, goal.cents(), notes);
+        row.position = savings.size();
+        savings.add(row);
+        track(row);
+        fireAdded(Section.SAVINGS, savings.size() - 1, savings.size());
+        fireTotalsChanged();
+        return row;
+    }
+
+    /** @throws BudgetException if lowering the amount would leave limits and goals above income */
+    public void updateIncome(Income row, String source, Money amount, String notes) {
+        int index = indexOf(incomes, row);
+        if (!constraints.tryReserve(row.getAmountCents() - amount.cents())) {
+            throw new BudgetException("Cannot lower income: Limits and goals would exceed total income!");
+        }
+        untrack(row);
+        row.set(source, amount.cents(), notes);
+        track(row);
+        fireUpdated(Section.INCOME, index);
+        fireTotalsChanged();
+    }
+
+    /**
+     * A changed spent total is recorded as an adjustment transaction dated now.
+     *
+     * @throws BudgetException if raising the limit would exceed unallocated income
+     */
+    public void updateExpense(Expense row, String category, Money limit, Money spentTotal, String notes) {
+        int index = indexOf(expenses, row);
+        if (!constraints.tryChange(row.getLimitCents(), limit.cents())) {
+            throw new BudgetException("Cannot change limit: Would exceed total income!");
+        }
+        expenseLimits += limit.cents() - row.getLimitCents();
+        row.set(category, limit.cents(), notes);
+        spent += row.adjustSpent(spentTotal.cents(), System.currentTimeMillis());
+        fireUpdated(Section.EXPENSE, index);
+        fireTotalsChanged();
+    }
+
+    /**
+     * A changed saved total is recorded as an adjustment transaction dated now.
+     *
+     * @throws BudgetException if raising the goal would exceed unallocated income
+     */
+    public void updateSavings(Savings row, String category, Money goal, Money savedTotal, String notes) {
+        int index = indexOf(savings, row);
+        if (!constraints.tryChange(row.getGoalCents(), goal.cents())) {
+            throw new BudgetException("Cannot change goal: Would exceed total income!");
+        }
+        savingsGoals += goal.cents() - row.getGoalCents();
+        row.set(category, goal.cents(), notes);
+        saved += row.adjustSaved(savedTotal.cents(), System.currentTimeMillis());
+        fireUpdated(Section.SAVINGS, index);
+        fireTotalsChanged();
+    }
+
+    /** @throws BudgetException if limits and goals would exceed the income left */
+    public void remove(Income row) {
+        int index = indexOf(incomes, row);
+        if (!constraints.tryReserve(row.getAmountCents())) {
+            throw new BudgetException("Cannot delete income: Limits and goals would exceed total income!");
+        }
+        removeAt(incomes, index);
+        untrack(row);
+        fireRemoved(Section.INCOME, new int[] {index});
+        fireTotalsChanged();
+    }
+
+    public void remove(Expense row) {
+        int index = indexOf(expenses, row);
+        constraints.release(row.getLimitCents());
+        removeAt(expenses, index);
+        untrack(row);
+        // Listeners such as the rollups still read the account's transactions to take them back out.
+        fireRemoved(Section.EXPENSE, new int[] {index});
+        ledger.closeAccount(row.getAccount());
+        fireTotalsChanged();
+    }
+
+    public void remove(Savings row) {
+        int index = indexOf(savings, row);
+        constraints.release(row.getGoalCents());
+        removeAt(savings, index);
+        untrack(row);
+        fireRemoved(Section.SAVINGS, new int[] {index});
+        ledger.closeAccount(row.getAccount());
+        fireTotalsChanged();
+    }
+
+    /** @throws BudgetException if the amount is negative */
+    public void spend(Expense row, Money amount, long timestamp) {
+        if (amount.isNegative()) throw new BudgetException("Amount cannot be negative!");
+        int index = indexOf(expenses, row);
+        spent += row.spend(amount.cents(), timestamp);
+        fireTransacted(Section.EXPENSE, index, amount.cents(), timestamp);
+        fireTotalsChanged();
+    }
+
+    /** @throws BudgetException if the amount is negative */
+    public void deposit(Savings row, Money amount, long timestamp) {
+        if (amount.isNegative()) throw new BudgetException("Amount cannot be negative!");
+        int index = indexOf(savings, row);
+        saved += row.deposit(amount.cents(), timestamp);
+        fireTransacted(Section.SAVINGS, index, amount.cents(), timestamp);
+        fireTotalsChanged();
+    }
+
+    /**
+     * Appends rows read back from storage, as one change per call. They were valid when
+     * saved, so the allocation rule is not checked again. The rows must belong to this
+     * engine's ledger.
+     */
+    public void restoreIncomes(Collection<Income> rows) {
+        long before = allocatable();
+        appendAll(incomes, Section.INCOME, rows);
+        rows.forEach(this::track);
+        constraints.adjust(allocatable() - before);
+        fireTotalsChanged();
+    }
+
+    public void restoreExpenses(Collection<Expense> rows) {
+        requireLedger(rows, Expense::getLedger);
+        long before = allocatable();
+        appendAll(expenses, Section.EXPENSE, rows);
+        rows.forEach(this::track);
+        constraints.adjust(allocatable() - before);
+        fireTotalsChanged();
+    }
+
+    public void restoreSavings(Collection<Savings> rows) {
+        requireLedger(rows, Savings::getLedger);
+        long before = allocatable();
+        appendAll(savings, Section.SAVINGS, rows);
+        rows.forEach(this::track);
+        constraints.adjust(allocatable() - before);
+        fireTotalsChanged();
+    }
+
+    /**
+     * Applies a staged batch: edits, then removals, then additions, with one event of each
+     * kind per section, then its spends and deposits. The headroom the batch reserved while
+     * staging becomes the allocation of its rows; if applying fails partway, whatever it
+     * reserved beyond what was applied is given back.
+     */
+    void apply(LedgerBatch batch) {
+        long before = allocatable();
+        try {
+            applyChanges(batch);
+        } finally {
+            constraints.adjust(allocatable() - before + batch.reserved);
+            batch.reserved = 0;
+        }
+        fireTotalsChanged();
+    }
+
+    private void applyChanges(LedgerBatch batch) {
+        batch.incomes.applyEdits(incomes, Section.INCOME, this::untrack, this::track, this::fireUpdated);
+        batch.expenses.applyEdits(expenses, Section.EXPENSE, this::untrack, this::track, this::fireUpdated);
+        batch.savings.applyEdits(savings, Section.SAVINGS, this::untrack, this::track, this::fireUpdated);
+
+        removeAll(incomes, Section.INCOME, batch.incomes.removed).forEach(this::untrack);
+        for (Expense row : removeAll(expenses, Section.EXPENSE, batch.expenses.removed)) {
+            untrack(row);
+            ledger.closeAccount(row.getAccount());
+        }
+        for (Savings row : removeAll(savings, Section.SAVINGS, batch.savings.removed)) {
+            untrack(row);
+            ledger.closeAccount(row.getAccount());
+        }
+
+        appendAll(incomes, Section.INCOME, batch.incomes.added);
+        appendAll(expenses, Section.EXPENSE, batch.expenses.added);
+        appendAll(savings, Section.SAVINGS, batch.savings.added);
+        batch.incomes.added.forEach(this::track);
+        batch.expenses.added.forEach(this::track);
+        batch.savings.added.forEach(this::track);
+
+        for (LedgerBatch.Posting<Expense> posting : batch.expenses.postings) {
+            Expense row = posting.row();
+            if (!listed(expenses, row)) continue;
+            spent += row.spend(posting.cents(), posting.timestamp());
+            fireTransacted(Section.EXPENSE, row.position, posting.cents(), posting.timestamp());
+        }
+        for (LedgerBatch.Posting<Savings> posting : batch.savings.postings) {
+            Savings row = posting.row();
+            if (!listed(savings, row)) continue;
+            saved += row.deposit(posting.cents(), posting.timestamp());
+            fireTransacted(Section.SAVINGS, row.position, posting.cents(), posting.timestamp());
+        }
+    }
+
+    private <T extends BudgetRow> void appendAll(ArrayList<T> rows, Section section, Collection<T> added) {
+        if (added.isEmpty()) return;
+        int from = rows.size();
+        rows.addAll(added);
+        renumber(rows, from);
+        fireAdded(section, from, rows.size());
+    }
+
+    private static <T extends BudgetRow> void removeAt(ArrayList<T> rows, int index) {
+        T row = rows.remove(index);
+        row.position = -1;
+        row.deleted = true;
+        renumber(rows, index);
+    }
+
+    private static <T extends BudgetRow> void renumber(List<T> rows, int from) {
+        for (int i = from; i < rows.size(); i++) rows.get(i).position = i;
+    }
+
+    /** Removes the listed rows among {@code removed} and returns them; others are ignored. */
+    private <T extends BudgetRow> List<T> removeAll(ArrayList<T> rows, Section section, Set<T> removed) {
+        if (removed.isEmpty()) return List.of();
+        int[] indexes = new int[removed.size()];
+        List<T> gone = new ArrayList<>(removed.size());
+        int write = 0;
+        for (int read = 0; read < rows.size(); read++) {
+            T row = rows.get(read);
+            if (removed.contains(row)) {
+                indexes[gone.size()] = read;
+                gone.add(row);
+                row.position = -1;
+                row.deleted = true;
+            } else {
+                row.position = write;
+                rows.set(write++, row);
+            }
+        }
+        rows.subList(write, rows.size()).clear();
+        if (!gone.isEmpty()) fireRemoved(section, Arrays.copyOf(indexes, gone.size()));
+        return gone;
+    }
+
+    private void track(Income row) { income += row.getAmountCents(); }
+    private void untrack(Income row) { income -= row.getAmountCents(); }
+
+    private void track(Expense row) {
+        expenseLimits += row.getLimitCents();
+        spent += row.getSpentCents();
+    }
+
+    private void untrack(Expense row) {
+        expenseLimits -= row.getLimitCents();
+        spent -= row.getSpentCents();
+    }
+
+    private void track(Savings row) {
+        savingsGoals += row.getGoalCents();
+        saved += row.getSavedCents();
+    }
+
+    private void untrack(Savings row) {
+        savingsGoals -= row.getGoalCents();
+        saved -= row.getSavedCents();
+    }
+
+    private static <T extends BudgetRow> int indexOf(List<T> rows, T row) {
+        if (!listed(rows, row)) throw new IllegalArgumentException("Row is not part of this budget");
+        return row.position;
+    }
+
+    private static <T extends BudgetRow> boolean listed(List<T> rows, T row) {
+        int index = row.position;
+        return index >= 0 && index < rows.size() && rows.get(index) == row;
+    }
+
+    private static void requireText(String value, String message) {
+        if (value == null || value.isBlank()) throw new BudgetException(message);
+    }
+
+    private <T> void requireLedger(Collection<T> rows, Function<T, TransactionLedger> ledgerOf) {
+        for (T row : rows) {
+            if (ledgerOf.apply(row) != ledger) {
+                throw new IllegalArgumentException("Row belongs to a different ledger");
+            }
+        }
+    }
+
+    private void fireUpdated(Section section, int index) {
+        for (BudgetListener listener : listeners) listener.updated(section, index);
+    }
+
+    private void fireAdded(Section section, int from, int to) {
+        for (BudgetListener listener : listeners) listener.added(section, from, to);
+    }
+
+    private void fireRemoved(Section section, int[] indexes) {
+        for (BudgetListener listener : listeners) listener.removed(section, indexes);
+    }
+
+    private void fireTransacted(Section section, int index, long cents, long timestamp) {
+        for (BudgetListener listener : listeners) listener.transacted(section, index, cents, timestamp);
+    }
+
+    private void fireTotalsChanged() {
+        for (BudgetListener listener : listeners) listener.totalsChanged();
+    }
+}
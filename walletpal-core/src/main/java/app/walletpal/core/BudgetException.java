@@ -0,0 +1,10 @@
+package app.walletpal.core;
+
+/** A change the budget rules do not allow; the message is fit to show to the user. */
+public class BudgetException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public BudgetException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package app.walletpal.core;
+
+/**
+ * Receives every change made to a {@link BudgetEngine}, on the thread that made it.
+ * Indexes are positions in the engine's lists at the time of the event.
+ */
+public interface BudgetListener {
+
+    /** Rows {@code from} (inclusive) to {@code to} (exclusive) were inserted. */
+    default void added(Section section, int from, int to) {}
+
+    /** The rows at {@code indexes}, in ascending order, were removed in one step. */
+    default void removed(Section section, int[] indexes) {}
+
+    /** The text or amounts of the row at {@code index} were edited. */
+    default void updated(Section section, int index) {}
+
+    /** A spend or deposit of {@code cents} was recorded against the row at {@code index}. */
+    default void transacted(Section section, int index, long cents, long timestamp) {}
+
+    /** Called once at the end of every operation, after its other events. */
+    default void totalsChanged() {}
+}
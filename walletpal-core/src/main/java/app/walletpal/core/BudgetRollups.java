@@ -0,0 +1,207 @@
+package app.walletpal.core;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Spending and deposits summed per category and per day and month, kept current from
+ * the engine's events. A recorded spend touches two buckets; queries read buckets only,
+ * so their cost follows the number of days or months asked for, not the number of
+ * transactions behind them. Categories are matched by name, so rows sharing a category
+ * share its buckets. Use on the engine's thread.
+ */
+public class BudgetRollups implements BudgetListener {
+
+    private static final class Buckets {
+        final TreeMap<Long, Long> days = new TreeMap<>();
+        final TreeMap<Integer, Long> months = new TreeMap<>();
+        long total;
+
+        void add(long day, int month, long cents) {
+            days.merge(day, cents, BudgetRollups::sumOrDrop);
+            months.merge(month, cents, BudgetRollups::sumOrDrop);
+            total += cents;
+        }
+    }
+
+    /** What has been counted for one row: under which category, and how many of its transactions. */
+    private static final class Tracked {
+        final int account;
+        String category;
+        int counted;
+
+        Tracked(int account, String category) {
+            this.account = account;
+            this.category = category;
+        }
+    }
+
+    private static final class Rollup {
+        final Map<String, Buckets> byCategory = new HashMap<>();
+        final Buckets all = new Buckets();
+        final List<Tracked> rows = new ArrayList<>();
+    }
+
+    private final BudgetEngine engine;
+    private final ZoneId zone;
+    private final Rollup spending = new Rollup();
+    private final Rollup deposits = new Rollup();
+
+    public BudgetRollups(BudgetEngine engine) {
+        this(engine, ZoneId.systemDefault());
+    }
+
+    /** Days and months are taken in {@code zone}. */
+    public BudgetRollups(BudgetEngine engine, ZoneId zone) {
+        this.engine = engine;
+        this.zone = zone;
+        added(Section.EXPENSE, 0, engine.getExpenses().size());
+        added(Section.SAVINGS, 0, engine.getSavings().size());
+        engine.addListener(this);
+    }
+
+    /** Categories with spending ({@link Section#EXPENSE}) or deposits ({@link Section#SAVINGS}), largest first. */
+    public List<String> categories(Section section) {
+        Map<String, Buckets> byCategory = rollup(section).byCategory;
+        List<String> categories = new ArrayList<>(byCategory.keySet());
+        categories.sort(Comparator.comparingLong((String c) -> byCategory.get(c).total).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        return categories;
+    }
+
+    public Money total(Section section, String category) {
+        Buckets buckets = rollup(section).byCategory.get(category);
+        return Money.ofCents(buckets == null ? 0 : buckets.total);
+    }
+
+    /** Month by month across all categories, {@code from} to {@code to} included; months without transactions are left out. */
+    public SortedMap<YearMonth, Money> monthly(Section section, YearMonth from, YearMonth to) {
+        return months(rollup(section).all, from, to);
+    }
+
+    public SortedMap<YearMonth, Money> monthly(Section section, String category, YearMonth from, YearMonth to) {
+        Buckets buckets = rollup(section).byCategory.get(category);
+        return buckets == null ? new TreeMap<>() : months(buckets, from, to);
+    }
+
+    /** Day by day from {@code from} to {@code to}, both included; days without transactions are left out. */
+    public SortedMap<LocalDate, Money> daily(Section section, String category, LocalDate from, LocalDate to) {
+        Buckets buckets = rollup(section).byCategory.get(category);
+        SortedMap<LocalDate, Money> days = new TreeMap<>();
+        if (buckets == null) return days;
+        buckets.days.subMap(from.toEpochDay(), true, to.toEpochDay(), true)
+                .forEach((day, cents) -> days.put(LocalDate.ofEpochDay(day), Money.ofCents(cents)));
+        return days;
+    }
+
+    private static SortedMap<YearMonth, Money> months(Buckets buckets, YearMonth from, YearMonth to) {
+        SortedMap<YearMonth, Money> months = new TreeMap<>();
+        buckets.months.subMap(month(from), true, month(to), true).forEach((month, cents) ->
+                months.put(YearMonth.of(month / 12, month % 12 + 1), Money.ofCents(cents)));
+        return months;
+    }
+
+    private static int month(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    @Override
+    public void added(Section section, int from, int to) {
+        if (section == Section.INCOME) return;
+        Rollup rollup = rollup(section);
+        List<Tracked> added = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            Tracked row = section == Section.EXPENSE
+                    ? new Tracked(engine.getExpenses().get(i).getAccount(), engine.getExpenses().get(i).getCategory())
+                    : new Tracked(engine.getSavings().get(i).getAccount(), engine.getSavings().get(i).getCategory());
+            catchUp(rollup, row);
+            added.add(row);
+        }
+        rollup.rows.addAll(from, added);
+    }
+
+    @Override
+    public void removed(Section section, int[] indexes) {
+        if (section == Section.INCOME) return;
+        Rollup rollup = rollup(section);
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            withdraw(rollup, rollup.rows.remove(indexes[i]));
+        }
+    }
+
+    /** Moves the row's history if its category changed, and counts any adjustment the edit recorded. */
+    @Override
+    public void updated(Section section, int index) {
+        if (section == Section.INCOME) return;
+        Rollup rollup = rollup(section);
+        Tracked row = rollup.rows.get(index);
+        String category = section == Section.EXPENSE
+                ? engine.getExpenses().get(index).getCategory()
+                : engine.getSavings().get(index).getCategory();
+        if (!category.equals(row.category)) {
+            withdraw(rollup, row);
+            row.category = category;
+        }
+        catchUp(rollup, row);
+    }
+
+    @Override
+    public void transacted(Section section, int index, long cents, long timestamp) {
+        if (section == Section.INCOME) return;
+        Rollup rollup = rollup(section);
+        Tracked row = rollup.rows.get(index);
+        add(rollup, row.category, timestamp, cents);
+        row.counted++;
+    }
+
+    /** Counts the row's transactions that are not counted yet. */
+    private void catchUp(Rollup rollup, Tracked row) {
+        int[] seen = {0};
+        engine.getLedger().forEach(row.account, (timestamp, cents) -> {
+            if (seen[0]++ >= row.counted) add(rollup, row.category, timestamp, cents);
+        });
+        row.counted = seen[0];
+    }
+
+    /** Takes everything counted for the row back out of its category. */
+    private void withdraw(Rollup rollup, Tracked row) {
+        int[] seen = {0};
+        engine.getLedger().forEach(row.account, (timestamp, cents) -> {
+            if (seen[0]++ < row.counted) add(rollup, row.category, timestamp, -cents);
+        });
+        row.counted = 0;
+    }
+
+    private void add(Rollup rollup, String category, long timestamp, long cents) {
+        LocalDate date = Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
+        long day = date.toEpochDay();
+        int month = date.getYear() * 12 + date.getMonthValue() - 1;
+        rollup.all.add(day, month, cents);
+        Buckets buckets = rollup.byCategory.computeIfAbsent(category, c -> new Buckets());
+        buckets.add(day, month, cents);
+        if (buckets.total == 0 && buckets.months.isEmpty()) rollup.byCategory.remove(category);
+    }
+
+    private Rollup rollup(Section section) {
+        return switch (section) {
+            case EXPENSE -> spending;
+            case SAVINGS -> deposits;
+            case INCOME -> throw new IllegalArgumentException("Income has no transactions");
+        };
+    }
+
+    /** Keeps bucket maps free of buckets that cancelled out to zero. */
+    private static Long sumOrDrop(Long a, Long b) {
+        long sum = a + b;
+        return sum == 0 ? null : sum;
+    }
+}
@@ -0,0 +1,9 @@
+package app.walletpal.core;
+
+/** Common base of the budget rows: where the row sits in its {@link BudgetEngine} list. */
+abstract class BudgetRow {
+    /** Index in the engine's list, or -1 while the row is not part of a budget. */
+    int position = -1;
+    /** Set once the row is deleted from its engine; its account is closed and it is never edited again. */
+    boolean deleted;
+}
@@ -0,0 +1,375 @@
+package app.walletpal.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Maps statement entries such as {@code "STARBUCKS #1234 SEATTLE", 4.50} to category
+ * names by user-defined rules: text the description contains or starts with, ignoring
+ * case; a regular expression; or a range the amount falls in. When several rules match,
+ * the one added first wins.
+ *
+ * <p>Rules are not tried one by one. Contains and prefix rules are compiled into one
+ * Aho-Corasick automaton, so a description is scanned once whatever the number of
+ * rules; amount ranges are cut into sorted segments that each know their winning rule,
+ * found by binary search. Regular expressions are tried in order, and only while they
+ * could still beat the best match found so far. Adding or removing a rule does no more
+ * than note it: each of the three is brought up to date on the next {@link #categorize},
+ * and only if its own rules changed, so loading many rules builds each once. Text rules
+ * added since then only extend the automaton; a removal rebuilds it.
+ *
+ * <p>Not thread-safe.
+ */
+public class CategoryRules {
+
+    public enum Kind { CONTAINS, PREFIX, REGEX, AMOUNT }
+
+    /** One rule; {@code text} is the matched text or expression, or {@code min-max} for amounts. */
+    public record Rule(int id, Kind kind, String text, String category) {}
+
+    private final Map<Integer, Rule> rules = new LinkedHashMap<>();
+    private final Map<Integer, Pattern> patterns = new LinkedHashMap<>();
+    private final Map<Integer, long[]> ranges = new LinkedHashMap<>();
+    private int nextId;
+
+    private Automaton automaton = new Automaton();
+    /** Text rules not yet in the automaton. */
+    private final List<Rule> unindexed = new ArrayList<>();
+    private Pattern[] compiledPatterns = new Pattern[0];
+    private int[] compiledPatternIds = new int[0];
+    private boolean patternsStale;
+    private long[] segmentStarts = new long[0];
+    private int[] segmentRules = new int[0];
+    private boolean rangesStale;
+
+    /** Matches descriptions containing {@code text}. */
+    public CategoryRules add(String text, String category) {
+        addText(Kind.CONTAINS, text, category);
+        return this;
+    }
+
+    public CategoryRules addPrefix(String text, String category) {
+        addText(Kind.PREFIX, text, category);
+        return this;
+    }
+
+    /**
+     * Matches descriptions in which {@code regex} is found, case-insensitively.
+     *
+     * @throws IllegalArgumentException if the expression does not compile
+     */
+    public CategoryRules addRegex(String regex, String category) {
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid rule expression: " + e.getDescription(), e);
+        }
+        int id = put(Kind.REGEX, regex, category);
+        patterns.put(id, pattern);
+        patternsStale = true;
+        return this;
+    }
+
+    /** Matches amounts from {@code min} to {@code max}, both included. */
+    public CategoryRules addAmountRange(Money min, Money max, String category) {
+        if (min.compareTo(max) > 0) throw new IllegalArgumentException("Range minimum is above its maximum");
+        int id = put(Kind.AMOUNT, min + "-" + max, category);
+        ranges.put(id, new long[] {min.cents(), max.cents()});
+        rangesStale = true;
+        return this;
+    }
+
+    /** Removes the rule with {@code id}; returns false if there is none. */
+    public boolean remove(int id) {
+        Rule rule = rules.remove(id);
+        if (rule == null) return false;
+        switch (rule.kind()) {
+            case CONTAINS, PREFIX -> {
+                // Tries do not shrink; the automaton is rebuilt from the remaining rules.
+                automaton = null;
+                unindexed.clear();
+            }
+            case REGEX -> {
+                patterns.remove(id);
+                patternsStale = true;
+            }
+            case AMOUNT -> {
+                ranges.remove(id);
+                rangesStale = true;
+            }
+        }
+        return true;
+    }
+
+    /** Every rule in the order they were added, which is also their priority. */
+    public List<Rule> rules() {
+        return List.copyOf(rules.values());
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    /** The category of the first added rule matching either the description or the amount, or null. */
+    public String categorize(String description, long cents) {
+        compile();
+        int best = automaton.match(description.toLowerCase(Locale.ROOT));
+
+        int segment = Arrays.binarySearch(segmentStarts, cents);
+        if (segment < 0) segment = -segment - 2;
+        if (segment >= 0 && segmentRules[segment] < best) best = segmentRules[segment];
+
+        for (int i = 0; i < compiledPatterns.length && compiledPatternIds[i] < best; i++) {
+            if (compiledPatterns[i].matcher(description).find()) {
+                best = compiledPatternIds[i];
+                break;
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : rules.get(best).category();
+    }
+
+    private void addText(Kind kind, String text, String category) {
+        if (text.isBlank()) throw new IllegalArgumentException("Rule text cannot be empty");
+        Rule rule = rules.get(put(kind, text, category));
+        if (automaton != null) unindexed.add(rule);
+    }
+
+    private int put(Kind kind, String text, String category) {
+        int id = nextId++;
+        rules.put(id, new Rule(id, kind, text, category));
+        return id;
+    }
+
+    private void compile() {
+        if (automaton == null) {
+            automaton = new Automaton();
+            for (Rule rule : rules.values()) {
+                if (rule.kind() == Kind.CONTAINS || rule.kind() == Kind.PREFIX) unindexed.add(rule);
+            }
+        }
+        if (!unindexed.isEmpty()) {
+            for (Rule rule : unindexed) {
+                automaton.insert(rule.text().toLowerCase(Locale.ROOT), rule.kind() == Kind.PREFIX, rule.id());
+            }
+            unindexed.clear();
+            automaton.link();
+        }
+        if (patternsStale) {
+            compiledPatterns = patterns.values().toArray(new Pattern[0]);
+            compiledPatternIds = patterns.keySet().stream().mapToInt(Integer::intValue).toArray();
+            patternsStale = false;
+        }
+        if (rangesStale) {
+            compileRanges();
+            rangesStale = false;
+        }
+    }
+
+    /**
+     * Cuts the amount axis at every range's start and just past every range's end, and
+     * gives each segment the earliest rule covering it.
+     */
+    private void compileRanges() {
+        long[] cuts = new long[ranges.size() * 2];
+        int count = 0;
+        for (long[] range : ranges.values()) {
+            cuts[count++] = range[0];
+            if (range[1] != Long.MAX_VALUE) cuts[count++] = range[1] + 1;
+        }
+        Arrays.sort(cuts, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || cuts[distinct - 1] != cuts[i]) cuts[distinct++] = cuts[i];
+        }
+        long[] starts = Arrays.copyOf(cuts, distinct);
+        int[] winners = new int[distinct];
+        Arrays.fill(winners, Integer.MAX_VALUE);
+        // Ids ascend with insertion order, so the first rule to claim a segment keeps it.
+        for (Map.Entry<Integer, long[]> entry : ranges.entrySet()) {
+            long[] range = entry.getValue();
+            for (int i = Arrays.binarySearch(starts, range[0]); i < distinct && starts[i] <= range[1]; i++) {
+                if (winners[i] == Integer.MAX_VALUE) winners[i] = entry.getKey();
+            }
+        }
+        segmentStarts = starts;
+        segmentRules = winners;
+    }
+
+    /**
+     * Reads rules written one per line as {@code text|Category}, where the text may start
+     * with {@code prefix:}, {@code regex:} or {@code amount:} (as in {@code amount:10-49.99}).
+     * Blank lines and lines starting with {@code #} are ignored.
+     */
+    public static CategoryRules read(Path file) throws IOException {
+        CategoryRules rules = new CategoryRules();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+                int bar = line.lastIndexOf('|');
+                String text = bar > 0 ? line.substring(0, bar).trim() : "";
+                String category = bar > 0 ? line.substring(bar + 1).trim() : "";
+                try {
+                    if (text.isEmpty() || category.isEmpty()) throw new IllegalArgumentException("expected text|Category");
+                    if (text.startsWith("prefix:")) rules.addPrefix(text.substring(7), category);
+                    else if (text.startsWith("regex:")) rules.addRegex(text.substring(6), category);
+                    else if (text.startsWith("amount:")) {
+                        String[] bounds = text.substring(7).split("-", 2);
+                        if (bounds.length != 2) throw new IllegalArgumentException("expected amount:min-max");
+                        rules.addAmountRange(Money.parse(bounds[0]), Money.parse(bounds[1]), category);
+                    } else rules.add(text, category);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file + " line " + number + ": " + e.getMessage());
+                }
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Aho-Corasick automaton over the lower-cased contains and prefix texts. Each node
+     * knows the earliest contains rule ending there or at any of its suffixes, and the
+     * earliest prefix rule spelled exactly by its path from the root.
+     */
+    private static final class Automaton {
+        private char[][] labels = new char[16][];
+        private int[][] children = new int[16][];
+        private int[] childCounts = new int[16];
+        private int[] fail = new int[16];
+        private int[] ownContains = new int[16];
+        private int[] contains = new int[16];
+        private int[] prefix = new int[16];
+        /** The root's children by ASCII character, since nearly every character steps from the root. */
+        private final int[] rootAscii = new int[128];
+        private int nodes;
+
+        Automaton() {
+            Arrays.fill(rootAscii, -1);
+            newNode();
+        }
+
+        void insert(String text, boolean isPrefix, int id) {
+            int node = 0;
+            for (int i = 0; i < text.length(); i++) {
+                int next = child(node, text.charAt(i));
+                if (next < 0) next = addChild(node, text.charAt(i));
+                node = next;
+            }
+            if (isPrefix) prefix[node] = Math.min(prefix[node], id);
+            else ownContains[node] = Math.min(ownContains[node], id);
+        }
+
+        /** Recomputes failure links and inherited matches, breadth first. */
+        void link() {
+            // Breadth-first order, so a node's failure target is always linked before it.
+            int[] queue = new int[nodes];
+            int head = 0;
+            int tail = 0;
+            contains[0] = ownContains[0];
+            for (int i = 0; i < childCounts[0]; i++) {
+                int child = children[0][i];
+                fail[child] = 0;
+                queue[tail++] = child;
+            }
+            while (head < tail) {
+                int node = queue[head++];
+                contains[node] = Math.min(ownContains[node], contains[fail[node]]);
+                for (int i = 0; i < childCounts[node]; i++) {
+                    char label = labels[node][i];
+                    int child = children[node][i];
+                    int f = fail[node];
+                    int target = child(f, label);
+                    while (target < 0 && f != 0) {
+                        f = fail[f];
+                        target = child(f, label);
+                    }
+                    fail[child] = Math.max(target, 0);
+                    queue[tail++] = child;
+                }
+            }
+        }
+
+        /** The earliest rule matching {@code text}, or {@link Integer#MAX_VALUE}. */
+        int match(String text) {
+            int best = Integer.MAX_VALUE;
+            int node = 0;
+            boolean fromStart = true;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                int next = child(node, c);
+                while (next < 0 && node != 0) {
+                    node = fail[node];
+                    fromStart = false;
+                    next = child(node, c);
+                }
+                if (next < 0) {
+                    fromStart = false;
+                    continue;
+                }
+                node = next;
+                if (contains[node] < best) best = contains[node];
+                if (fromStart && prefix[node] < best) best = prefix[node];
+            }
+            return best;
+        }
+
+        private int child(int node, char label) {
+            if (node == 0 && label < 128) return rootAscii[label];
+            char[] keys = labels[node];
+            int count = childCounts[node];
+            // Most nodes have one or two children; a scan beats anything cleverer there.
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == label) return children[node][i];
+            }
+            return -1;
+        }
+
+        private int addChild(int node, char label) {
+            int child = newNode();
+            int count = childCounts[node];
+            if (labels[node] == null) {
+                labels[node] = new char[2];
+                children[node] = new int[2];
+            } else if (count == labels[node].length) {
+                labels[node] = Arrays.copyOf(labels[node], count * 2);
+                children[node] = Arrays.copyOf(children[node], count * 2);
+            }
+            labels[node][count] = label;
+            children[node][count] = child;
+            childCounts[node]++;
+            if (node == 0 && label < 128) rootAscii[label] = child;
+            return child;
+        }
+
+        private int newNode() {
+            if (nodes == fail.length) {
+                int capacity = nodes * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+                childCounts = Arrays.copyOf(childCounts, capacity);
+                fail = Arrays.copyOf(fail, capacity);
+                ownContains = Arrays.copyOf(ownContains, capacity);
+                contains = Arrays.copyOf(contains, capacity);
+                prefix = Arrays.copyOf(prefix, capacity);
+            }
+            ownContains[nodes] = Integer.MAX_VALUE;
+            contains[nodes] = Integer.MAX_VALUE;
+            prefix[nodes] = Integer.MAX_VALUE;
+            return nodes++;
+        }
+    }
+}
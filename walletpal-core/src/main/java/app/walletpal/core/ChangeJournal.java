@@ -0,0 +1,218 @@
+package app.walletpal.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of ledger mutations, written between snapshots of walletpal_data.txt.
+ * Each line is one record: {@code seq|OP|SECTION|index|fields...}. An expense or savings
+ * goal added or edited carries its spent or saved total and, last, the date of its latest
+ * adjustment, so replay dates the difference as the engine did. Records with a
+ * sequence number at or below the snapshot's are already folded into it and skipped.
+ * Text fields are escaped like those of the text snapshot. The journal starts with
+ * {@link #VERSION_LINE}.
+ */
+public class ChangeJournal {
+    static final String JOURNAL_FILE = "walletpal_data.journal";
+    static final String VERSION_LINE = "#" + DataManager.ESCAPED_VERSION;
+
+    private final Path dir;
+    private Writer out;
+
+    /** The journal kept beside the snapshot in {@code dir}. */
+    public ChangeJournal(Path dir) {
+        this.dir = dir;
+    }
+
+    public void append(String record) throws IOException {
+        append(List.of(record));
+    }
+
+    /** Appends the records in order and flushes once. */
+    public void append(List<String> records) throws IOException {
+        if (out == null) {
+            Files.createDirectories(dir.toAbsolutePath());
+            File file = dir.resolve(JOURNAL_FILE).toFile();
+            boolean fresh = file.length() == 0;
+            out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+            if (fresh) out.write(VERSION_LINE + "\n");
+        }
+        for (String record : records) {
+            out.write(record);
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /** Drops all records; called once a snapshot containing them has been written. */
+    public void reset() throws IOException {
+        close();
+        if (Files.exists(dir)) new FileOutputStream(dir.resolve(JOURNAL_FILE).toFile(), false).close();
+    }
+
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    public static boolean exists(Path dir) {
+        return dir.resolve(JOURNAL_FILE).toFile().length() > 0;
+    }
+
+    public static String added(long seq, Income income, int index) {
+        return seq + "|ADD|" + Section.INCOME + "|" + index + "|" + encode(income);
+    }
+
+    public static String added(long seq, Expense expense, int index) {
+        return seq + "|ADD|" + Section.EXPENSE + "|" + index + "|" + encode(expense);
+    }
+
+    public static String added(long seq, Savings saving, int index) {
+        return seq + "|ADD|" + Section.SAVINGS + "|" + index + "|" + encode(saving);
+    }
+
+    public static String edited(long seq, Income income, int index) {
+        return seq + "|SET|" + Section.INCOME + "|" + index + "|" + encode(income);
+    }
+
+    public static String edited(long seq, Expense expense, int index) {
+        return seq + "|SET|" + Section.EXPENSE + "|" + index + "|" + encode(expense);
+    }
+
+    public static String edited(long seq, Savings saving, int index) {
+        return seq + "|SET|" + Section.SAVINGS + "|" + index + "|" + encode(saving);
+    }
+
+    public static String removed(long seq, Section section, int index, int count) {
+        return seq + "|DEL|" + section + "|" + index + "|" + count;
+    }
+
+    public static String spent(long seq, Section section, int index, Money amount, long timestamp) {
+        return seq + "|SPEND|" + section + "|" + index + "|" + amount + "|" + timestamp;
+    }
+
+    private static String encode(Income income) {
+        return DataManager.escape(income.getSource()) + "|" + income.getAmount() + "|"
+                + DataManager.escape(income.getNotes());
+    }
+
+    private static String encode(Expense expense) {
+        return DataManager.escape(expense.getCategory()) + "|" + expense.getLimit() + "|" + expense.getSpent() + "|"
+                + DataManager.escape(expense.getNotes()) + "|" + expense.adjustedAt();
+    }
+
+    private static String encode(Savings saving) {
+        return DataManager.escape(saving.getCategory()) + "|" + saving.getGoal() + "|" + saving.getSaved() + "|"
+                + DataManager.escape(saving.getNotes()) + "|" + saving.adjustedAt();
+    }
+
+    /**
+     * Applies every record in {@code dir}'s journal newer than {@code afterSeq} to the
+     * lists and returns the last applied sequence number. Replay stops at the first
+     * unreadable record, which can only be a write torn by a crash, and lists it in
+     * {@code issues}.
+     *
+     * @throws IOException if the journal cannot be read or has an unknown version
+     */
+    public static long replay(Path dir, TransactionLedger ledger, List<Income> incomes, List<Expense> expenses,
+                              List<Savings> savings, long afterSeq, List<LoadReport.Issue> issues) throws IOException {
+        long lastSeq = afterSeq;
+        File file = dir.resolve(JOURNAL_FILE).toFile();
+        if (!file.exists()) return lastSeq;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (line == null) return lastSeq;
+            if (!line.equals(VERSION_LINE)) throw new IOException("unknown journal version: " + line);
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) continue;
+                String[] parts = line.split("\\|", -1);
+                for (int i = 4; i < parts.length; i++) parts[i] = DataManager.unescape(parts[i]);
+                try {
+                    long seq = Long.parseLong(parts[0]);
+                    if (seq <= afterSeq) continue;
+                    Section section = Section.valueOf(parts[2]);
+                    switch (section) {
+                        case INCOME -> apply(incomes, parts, ChangeJournal::decodeIncome,
+                                ChangeJournal::update, null, row -> {});
+                        case EXPENSE -> apply(expenses, parts, p -> decodeExpense(ledger, p),
+                                ChangeJournal::update, (row, amount, at) -> row.spend(amount.cents(), at),
+                                row -> ledger.closeAccount(row.getAccount()));
+                        case SAVINGS -> apply(savings, parts, p -> decodeSavings(ledger, p),
+                                ChangeJournal::update, (row, amount, at) -> row.deposit(amount.cents(), at),
+                                row -> ledger.closeAccount(row.getAccount()));
+                    }
+                    lastSeq = seq;
+                } catch (RuntimeException e) {
+                    issues.add(new LoadReport.Issue(lineNumber, "unreadable journal record, later changes dropped: "
+                            + line));
+                    break;
+                }
+            }
+        }
+        return lastSeq;
+    }
+
+    private interface Decoder<T> { T decode(String[] parts); }
+
+    private interface Updater<T> { void update(T row, String[] parts); }
+
+    private interface Spender<T> { void spend(T row, Money amount, long timestamp); }
+
+    private static <T> void apply(List<T> rows, String[] parts, Decoder<T> decoder, Updater<T> updater,
+                                  Spender<T> spender, Consumer<T> close) {
+        int index = Integer.parseInt(parts[3]);
+        switch (parts[1]) {
+            case "ADD" -> rows.add(index, decoder.decode(parts));
+            case "SET" -> updater.update(rows.get(index), parts);
+            case "DEL" -> {
+                List<T> deleted = rows.subList(index, index + Integer.parseInt(parts[4]));
+                deleted.forEach(close);
+                deleted.clear();
+            }
+            case "SPEND" -> spender.spend(rows.get(index), Money.parse(parts[4]), Long.parseLong(parts[5]));
+            default -> throw new IllegalArgumentException("Unknown journal operation: " + parts[1]);
+        }
+    }
+
+    private static Income decodeIncome(String[] parts) {
+        return new Income(parts[4], Money.parse(parts[5]).cents(), parts[6]);
+    }
+
+    private static Expense decodeExpense(TransactionLedger ledger, String[] parts) {
+        Expense expense = new Expense(ledger, parts[4], Money.parse(parts[5]).cents(), parts[7]);
+        expense.adjustSpent(Money.parse(parts[6]).cents(), Long.parseLong(parts[8]));
+        return expense;
+    }
+
+    private static Savings decodeSavings(TransactionLedger ledger, String[] parts) {
+        Savings saving = new Savings(ledger, parts[4], Money.parse(parts[5]).cents(), parts[7]);
+        saving.adjustSaved(Money.parse(parts[6]).cents(), Long.parseLong(parts[8]));
+        return saving;
+    }
+
+    // Edits update the row in place so an expense or goal keeps its transaction history.
+
+    private static void update(Income income, String[] parts) {
+        income.set(parts[4], Money.parse(parts[5]).cents(), parts[6]);
+    }
+
+    private static void update(Expense expense, String[] parts) {
+        expense.set(parts[4], Money.parse(parts[5]).cents(), parts[7]);
+        expense.adjustSpent(Money.parse(parts[6]).cents(), Long.parseLong(parts[8]));
+    }
+
+    private static void update(Savings saving, String[] parts) {
+        saving.set(parts[4], Money.parse(parts[5]).cents(), parts[7]);
+        saving.adjustSaved(Money.parse(parts[6]).cents(), Long.parseLong(parts[8]));
+    }
+}
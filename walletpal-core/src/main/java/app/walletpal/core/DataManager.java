@@ -0,0 +1,428 @@
+package app.walletpal.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DataManager {
+    private static final String DATA_FILE = "walletpal_data.txt";
+    private static final String BINARY_FILE = "walletpal_data.bin";
+    static final String HEADER = "WalletPal Data File";
+    /** Text fields are escaped from this version of the text snapshot on. */
+    static final int ESCAPED_VERSION = 2;
+    private static final int IO_BUFFER = 1 << 16;
+
+    /** Directory holding the data files; the working directory unless {@code -Dwalletpal.dataDir} is set. */
+    static final Path DATA_DIR = Path.of(System.getProperty("walletpal.dataDir", ""));
+
+    /**
+     * Snapshot format used for saving; pick another with {@code -Dwalletpal.format=binary}
+     * or {@code -Dwalletpal.format=indexed}.
+     */
+    public enum Format { TEXT, BINARY, INDEXED }
+
+    private static final Format FORMAT = format(System.getProperty("walletpal.format"));
+
+    /**
+     * Writes the snapshot to a temporary file, syncs it and renames it over the data
+     * file, so a crash mid-save leaves the previous snapshot intact, then deletes any
+     * snapshot left in another format.
+     */
+    public static void saveData(LedgerSnapshot snapshot) throws IOException {
+        writeData(DATA_DIR, snapshot, FORMAT);
+    }
+
+    /** Saves {@code snapshot} into the data files of {@code dir}, as {@link #saveData} does. */
+    public static void writeData(Path dir, LedgerSnapshot snapshot) throws IOException {
+        writeData(dir, snapshot, FORMAT);
+    }
+
+    static void writeData(Path dir, LedgerSnapshot snapshot, Format format) throws IOException {
+        Path target = dir.resolve(snapshotName(format));
+        Path temp = dir.resolve(snapshotName(format) + ".tmp");
+
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            switch (format) {
+                case BINARY -> BinaryLedgerFormat.write(snapshot, out);
+                case INDEXED -> IndexedLedgerStore.write(snapshot, out);
+                default -> writeText(snapshot, out);
+            }
+            out.getFD().sync();
+        }
+        replace(temp, target);
+        for (Format other : Format.values()) {
+            if (other != format) Files.deleteIfExists(dir.resolve(snapshotName(other)));
+        }
+    }
+
+    /**
+     * Writes the whole budget to {@code file} as JSON, streamed out row by row, through a
+     * temporary file renamed into place once complete.
+     */
+    public static void exportJson(LedgerSnapshot snapshot, Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), IO_BUFFER)) {
+            JsonLedgerFormat.write(snapshot, out);
+        }
+        replace(temp, file);
+    }
+
+    /**
+     * Reads a JSON export into the lists, after any rows they already hold. Rows that
+     * cannot be read are skipped and listed in the returned report, whose sequence is 0:
+     * imported rows belong to no journal yet.
+     *
+     * @throws IOException if the file cannot be read or is not a WalletPal JSON export
+     */
+    public static LoadReport importJson(Path file,
+                                        ArrayList<Income> incomes,
+                                        ArrayList<Expense> expenses,
+                                        ArrayList<Savings> savings,
+                                        TransactionLedger ledger) throws IOException {
+        List<LoadReport.Issue> issues = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file)) {
+            JsonLedgerFormat.read(in, ledger, incomes::add, expenses::add, savings::add, issues);
+        }
+        return new LoadReport(0, issues);
+    }
+
+    private static String snapshotName(Format format) {
+        return switch (format) {
+            case TEXT -> DATA_FILE;
+            case BINARY -> BINARY_FILE;
+            case INDEXED -> IndexedLedgerStore.FILE;
+        };
+    }
+
+    private static Format format(String name) {
+        if ("binary".equalsIgnoreCase(name)) return Format.BINARY;
+        if ("indexed".equalsIgnoreCase(name)) return Format.INDEXED;
+        return Format.TEXT;
+    }
+
+    /**
+     * The store for the data files of {@code dir}: the indexed one if the snapshot there
+     * is an indexed table, or if there is none yet and that is the configured format.
+     */
+    public static LedgerStore store(Path dir) {
+        Path file = snapshotFile(dir);
+        boolean indexed = file == null ? FORMAT == Format.INDEXED
+                : file.getFileName().toString().equals(IndexedLedgerStore.FILE);
+        return indexed ? new IndexedLedgerStore(dir) : new FileLedgerStore(dir);
+    }
+
+    private static void writeText(LedgerSnapshot snapshot, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), IO_BUFFER);
+        StringBuilder line = new StringBuilder(128);
+
+        writer.write(HEADER + "|" + snapshot.getSequence() + "|" + ESCAPED_VERSION + "\n");
+
+        writer.write("[INCOMES]\n");
+        for (LedgerSnapshot.IncomeRow income : snapshot.getIncomes()) {
+            line.setLength(0);
+            appendEscaped(line, income.source()).append('|');
+            Money.appendTo(line, income.amount().cents());
+            appendEscaped(line.append('|'), income.notes()).append('\n');
+            writer.append(line);
+        }
+
+        writer.write("[EXPENSES]\n");
+        for (LedgerSnapshot.ExpenseRow expense : snapshot.getExpenses()) {
+            line.setLength(0);
+            appendEscaped(line, expense.category()).append('|');
+            Money.appendTo(line, expense.limit().cents());
+            line.append('|');
+            Money.appendTo(line, expense.spent().cents());
+            appendEscaped(line.append('|'), expense.notes()).append('\n');
+            writer.append(line);
+        }
+
+        writer.write("[SAVINGS]\n");
+        for (LedgerSnapshot.SavingsRow saving : snapshot.getSavings()) {
+            line.setLength(0);
+            appendEscaped(line, saving.category()).append('|');
+            Money.appendTo(line, saving.goal().cents());
+            line.append('|');
+            Money.appendTo(line, saving.saved().cents());
+            appendEscaped(line.append('|'), saving.notes()).append('\n');
+            writer.append(line);
+        }
+
+        writer.write("[TRANSACTIONS]\n");
+        writeTransactions(writer, line, 'E', snapshot.getSpending());
+        writeTransactions(writer, line, 'S', snapshot.getDeposits());
+
+        writer.flush();
+    }
+
+    private static void writeTransactions(Writer writer, StringBuilder line, char kind,
+                                          LedgerSnapshot.Transactions transactions) throws IOException {
+        for (int i = 0; i < transactions.size(); i++) {
+            line.setLength(0);
+            line.append(kind).append('|')
+                    .append(transactions.rows()[i]).append('|')
+                    .append(transactions.timestamps()[i]).append('|');
+            Money.appendTo(line, transactions.cents()[i]).append('\n');
+            writer.append(line);
+        }
+    }
+
+    /**
+     * Escapes a text field of the text snapshot or the journal, so a '|' or line break in
+     * it cannot split the record: {@code \\}, {@code \p}, {@code \n} and {@code \r}
+     * stand for a backslash, a '|', a newline and a carriage return.
+     */
+    static String escape(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (escaped(text.charAt(i)) != 0) {
+                return appendEscaped(new StringBuilder(text.length() + 8), text).toString();
+            }
+        }
+        return text;
+    }
+
+    static StringBuilder appendEscaped(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char escape = escaped(c);
+            if (escape == 0) out.append(c);
+            else out.append('\\').append(escape);
+        }
+        return out;
+    }
+
+    private static char escaped(char c) {
+        return switch (c) {
+            case '\\' -> '\\';
+            case '|' -> 'p';
+            case '\n' -> 'n';
+            case '\r' -> 'r';
+            default -> 0;
+        };
+    }
+
+    static String unescape(String text) {
+        return text.indexOf('\\') < 0 ? text : unescape(text.toCharArray(), 0, text.length());
+    }
+
+    /** Reverses {@link #escape}; a backslash before any other character is kept as it is. */
+    static String unescape(char[] text, int from, int to) {
+        StringBuilder out = null;
+        int copied = from;
+        for (int i = from; i < to - 1; i++) {
+            if (text[i] != '\\') continue;
+            char c = switch (text[i + 1]) {
+                case '\\' -> '\\';
+                case 'p' -> '|';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                default -> 0;
+            };
+            if (c == 0) continue;
+            if (out == null) out = new StringBuilder(to - from);
+            out.append(text, copied, i - copied).append(c);
+            i++;
+            copied = i + 1;
+        }
+        if (out == null) return new String(text, from, to - from);
+        return out.append(text, copied, to - copied).toString();
+    }
+
+    /**
+     * Replays loaded transactions onto their rows, then records any difference to the
+     * saved totals as an adjustment. Files written before transactions were kept carry
+     * totals only, which become a single opening transaction per row.
+     */
+    static void restoreHistory(List<Expense> expenses, long[] spent, LedgerSnapshot.Transactions spending,
+                               List<Savings> savings, long[] saved, LedgerSnapshot.Transactions deposits,
+                               List<LoadReport.Issue> issues) {
+        for (int i = 0; i < spending.size(); i++) {
+            int row = spending.rows()[i];
+            if (row < 0 || row >= expenses.size()) {
+                issues.add(new LoadReport.Issue(0, "spending transaction for missing expense row " + row));
+                continue;
+            }
+            expenses.get(row).spend(spending.cents()[i], spending.timestamps()[i]);
+        }
+        for (int i = 0; i < deposits.size(); i++) {
+            int row = deposits.rows()[i];
+            if (row < 0 || row >= savings.size()) {
+                issues.add(new LoadReport.Issue(0, "deposit for missing savings row " + row));
+                continue;
+            }
+            savings.get(row).deposit(deposits.cents()[i], deposits.timestamps()[i]);
+        }
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < expenses.size(); i++) {
+            expenses.get(i).adjustSpent(spent[i], now);
+        }
+        for (int i = 0; i < savings.size(); i++) {
+            savings.get(i).adjustSaved(saved[i], now);
+        }
+    }
+
+    static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Loads the last snapshot in the data directory, then replays any journal records
+     * written after it, and hands the rows to {@code engine} with one change per section.
+     * Lines that cannot be read are skipped and listed in the returned report.
+     *
+     * @throws IOException if the data files cannot be read
+     */
+    public static LoadReport loadData(BudgetEngine engine) throws IOException {
+        return loadData(DATA_DIR, engine, true);
+    }
+
+    /**
+     * Reads the data files of {@code dir} into plain lists, for a caller that hands them
+     * to an engine itself, without changing any file. Touches no engine, so it may run on
+     * any thread, and for different directories on several threads at once.
+     */
+    public static LoadReport readData(Path dir,
+                                      ArrayList<Income> incomes,
+                                      ArrayList<Expense> expenses,
+                                      ArrayList<Savings> savings,
+                                      TransactionLedger ledger) throws IOException {
+        return readData(dir, incomes, expenses, savings, ledger, false);
+    }
+
+    /**
+     * Like {@link #readData(Path, ArrayList, ArrayList, ArrayList, TransactionLedger)}; with
+     * {@code upgrade}, a text snapshot read cleanly while saving in binary is converted in
+     * place. Pass false wherever the files must stay as they are, such as checks. A failed
+     * conversion is listed in the report and leaves the text snapshot in place.
+     */
+    public static LoadReport readData(Path dir,
+                                      ArrayList<Income> incomes,
+                                      ArrayList<Expense> expenses,
+                                      ArrayList<Savings> savings,
+                                      TransactionLedger ledger,
+                                      boolean upgrade) throws IOException {
+        List<LoadReport.Issue> issues = new ArrayList<>();
+        long sequence = 0;
+        Path file = snapshotFile(dir);
+        if (file != null) {
+            sequence = readSnapshot(file, ledger, incomes, expenses, savings, issues);
+            if (upgrade && issues.isEmpty() && FORMAT == Format.BINARY
+                    && file.getFileName().toString().equals(DATA_FILE)) {
+                upgradeLegacyFile(dir, LedgerSnapshot.of(incomes, expenses, savings, sequence), issues);
+            }
+        }
+        sequence = ChangeJournal.replay(dir, ledger, incomes, expenses, savings, sequence, issues);
+        return new LoadReport(sequence, issues);
+    }
+
+    /** Loads the data files of {@code dir} into {@code engine} without changing them. */
+    public static LoadReport loadData(Path dir, BudgetEngine engine) throws IOException {
+        return loadData(dir, engine, false);
+    }
+
+    /**
+     * Loads the data files of {@code dir} into {@code engine}; see
+     * {@link #readData(Path, ArrayList, ArrayList, ArrayList, TransactionLedger, boolean)}.
+     */
+    public static LoadReport loadData(Path dir, BudgetEngine engine, boolean upgrade) throws IOException {
+        ArrayList<Income> incomes = new ArrayList<>();
+        ArrayList<Expense> expenses = new ArrayList<>();
+        ArrayList<Savings> savings = new ArrayList<>();
+        LoadReport report = readData(dir, incomes, expenses, savings, engine.getLedger(), upgrade);
+
+        engine.restoreIncomes(incomes);
+        engine.restoreExpenses(expenses);
+        engine.restoreSavings(savings);
+        return report;
+    }
+
+    /** Directory holding the data files; the working directory unless {@code -Dwalletpal.dataDir} is set. */
+    public static Path dataDir() {
+        return DATA_DIR;
+    }
+
+    /** Whether {@code dir} holds a saved snapshot. */
+    public static boolean hasData(Path dir) {
+        return snapshotFile(dir) != null;
+    }
+
+    /**
+     * The snapshot in {@code dir} to load, or null if there is none. Saving deletes the
+     * snapshots in other formats, but a crash right after the rename can leave one
+     * behind, so the most recently written file wins; on a tie, the configured format.
+     */
+    public static Path snapshotFile(Path dir) {
+        Path newest = null;
+        long newestModified = Long.MIN_VALUE;
+        for (Format format : byPreference()) {
+            Path file = dir.resolve(snapshotName(format));
+            long modified;
+            try {
+                modified = Files.getLastModifiedTime(file).toMillis();
+            } catch (IOException e) {
+                continue;
+            }
+            if (modified > newestModified) {
+                newest = file;
+                newestModified = modified;
+            }
+        }
+        return newest;
+    }
+
+    /** The configured format first, then the others. */
+    private static List<Format> byPreference() {
+        List<Format> formats = new ArrayList<>(List.of(Format.values()));
+        formats.remove(FORMAT);
+        formats.add(0, FORMAT);
+        return formats;
+    }
+
+    /** Reads only the snapshot in {@code dir}, ignoring the journal; returns its sequence, or 0 if there is none. */
+    static long readSnapshot(Path dir,
+                             TransactionLedger ledger,
+                             ArrayList<Income> incomes,
+                             ArrayList<Expense> expenses,
+                             ArrayList<Savings> savings) throws IOException {
+        Path file = snapshotFile(dir);
+        return file == null ? 0 : readSnapshot(file, ledger, incomes, expenses, savings, new ArrayList<>());
+    }
+
+    private static long readSnapshot(Path file,
+                                     TransactionLedger ledger,
+                                     ArrayList<Income> incomes,
+                                     ArrayList<Expense> expenses,
+                                     ArrayList<Savings> savings,
+                                     List<LoadReport.Issue> issues) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.equals(BINARY_FILE)) {
+            return BinaryLedgerFormat.read(file, ledger, incomes, expenses, savings, issues);
+        }
+        if (name.equals(IndexedLedgerStore.FILE)) {
+            return IndexedLedgerStore.read(file, ledger, incomes, expenses, savings, issues);
+        }
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+            return LedgerParser.parse(reader, ledger, incomes, expenses, savings, issues);
+        }
+    }
+
+    /** Converts the text snapshot in {@code dir} to the binary format and keeps the original as a backup. */
+    private static void upgradeLegacyFile(Path dir, LedgerSnapshot snapshot, List<LoadReport.Issue> issues) {
+        try {
+            Files.copy(dir.resolve(DATA_FILE), dir.resolve(DATA_FILE + ".bak"), StandardCopyOption.REPLACE_EXISTING);
+            writeData(dir, snapshot, Format.BINARY);
+        } catch (IOException e) {
+            issues.add(new LoadReport.Issue(0, "could not convert " + DATA_FILE + " to " + BINARY_FILE
+                    + ": " + e.getMessage()));
+        }
+    }
+}
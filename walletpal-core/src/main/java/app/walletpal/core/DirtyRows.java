@@ -0,0 +1,61 @@
+package app.walletpal.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The rows edited since they were last drained, each held once however often it
+ * changed. Rows are kept by identity, so one edited and then moved by insertions or
+ * removals around it is still found, and one removed meanwhile is dropped. Registers
+ * itself with the engine; use on the engine's thread.
+ */
+public class DirtyRows implements BudgetListener {
+    private final BudgetEngine engine;
+    private final Set<Income> incomes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Expense> expenses = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Savings> savings = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public DirtyRows(BudgetEngine engine) {
+        this.engine = engine;
+        engine.addListener(this);
+    }
+
+    @Override
+    public void updated(Section section, int index) {
+        switch (section) {
+            case INCOME -> incomes.add(engine.getIncomes().get(index));
+            case EXPENSE -> expenses.add(engine.getExpenses().get(index));
+            case SAVINGS -> savings.add(engine.getSavings().get(index));
+        }
+    }
+
+    public boolean isEmpty() {
+        return incomes.isEmpty() && expenses.isEmpty() && savings.isEmpty();
+    }
+
+    public int size() {
+        return incomes.size() + expenses.size() + savings.size();
+    }
+
+    /** Current indexes, ascending, of the section's edited rows still in the engine; forgets them all. */
+    public int[] drain(Section section) {
+        return switch (section) {
+            case INCOME -> drain(incomes, engine.getIncomes());
+            case EXPENSE -> drain(expenses, engine.getExpenses());
+            case SAVINGS -> drain(savings, engine.getSavings());
+        };
+    }
+
+    private static <T extends BudgetRow> int[] drain(Set<T> dirty, List<T> rows) {
+        List<Integer> listed = new ArrayList<>(dirty.size());
+        for (T row : dirty) {
+            int index = row.position;
+            if (index >= 0 && index < rows.size() && rows.get(index) == row) listed.add(index);
+        }
+        dirty.clear();
+        return listed.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+}
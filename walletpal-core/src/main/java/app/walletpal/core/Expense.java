@@ -0,0 +1,61 @@
+package app.walletpal.core;
+
+/**
+ * One expense category with its spending limit. What has been spent is the sum of the
+ * row's transactions in the {@link TransactionLedger}. Created and changed only
+ * through {@link BudgetEngine}.
+ */
+public final class Expense extends BudgetRow {
+    private final TransactionLedger ledger;
+    private final int account;
+    private String category;
+    private long limit;
+    private String notes;
+    private long adjustedAt;
+
+    Expense(TransactionLedger ledger, String category, long limit, String notes) {
+        this.ledger = ledger;
+        this.account = ledger.openAccount(Section.EXPENSE);
+        this.category = category;
+        this.limit = limit;
+        this.notes = notes;
+    }
+
+    public String getCategory() { return category; }
+    public Money getLimit() { return Money.ofCents(limit); }
+    public long getLimitCents() { return limit; }
+    public Money getSpent() { return Money.ofCents(ledger.total(account)); }
+    public long getSpentCents() { return ledger.total(account); }
+    public Money getRemaining() { return Money.ofCents(limit - ledger.total(account)); }
+    public String getNotes() { return notes; }
+
+    public Money getSpentBetween(long from, long to) { return Money.ofCents(ledger.sum(account, from, to)); }
+
+    public TransactionLedger getLedger() { return ledger; }
+    public int getAccount() { return account; }
+
+    void set(String category, long limit, String notes) {
+        this.category = category;
+        this.limit = limit;
+        this.notes = notes;
+    }
+
+    /** Records a spend and returns the change to the row's total. */
+    long spend(long cents, long timestamp) {
+        ledger.record(account, timestamp, cents);
+        return cents;
+    }
+
+    /** Records the difference to {@code target} as an adjustment, keeping the history intact. */
+    long adjustSpent(long target, long timestamp) {
+        long adjustment = Math.subtractExact(target, ledger.total(account));
+        if (adjustment == 0) return 0;
+        adjustedAt = timestamp;
+        return spend(adjustment, timestamp);
+    }
+
+    /** When the last adjustment was dated, or 0 if there has been none. */
+    long adjustedAt() {
+        return adjustedAt;
+    }
+}
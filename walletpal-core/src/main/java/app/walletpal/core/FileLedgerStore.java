@@ -0,0 +1,132 @@
+package app.walletpal.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The text and binary snapshot files, which can only be read whole: the first query
+ * loads the snapshot and the rest filter it, until a save replaces the file. Thread-safe.
+ */
+public class FileLedgerStore implements LedgerStore {
+    private final Path dir;
+    private Path file;
+    private Object fileKey;
+    private FileTime modified;
+    private long size;
+    private LedgerSnapshot snapshot;
+
+    public FileLedgerStore(Path dir) {
+        this.dir = dir;
+    }
+
+    @Override
+    public boolean exists() {
+        return DataManager.hasData(dir);
+    }
+
+    @Override
+    public void save(LedgerSnapshot snapshot) throws IOException {
+        DataManager.writeData(dir, snapshot);
+    }
+
+    @Override
+    public int count(Section section) throws IOException {
+        LedgerSnapshot snapshot = snapshot();
+        return switch (section) {
+            case INCOME -> snapshot.getIncomes().size();
+            case EXPENSE -> snapshot.getExpenses().size();
+            case SAVINGS -> snapshot.getSavings().size();
+        };
+    }
+
+    @Override
+    public List<LedgerSnapshot.IncomeRow> incomes(int from, int count) throws IOException {
+        return page(snapshot().getIncomes(), from, count);
+    }
+
+    @Override
+    public List<LedgerSnapshot.ExpenseRow> expenses(int from, int count) throws IOException {
+        return page(snapshot().getExpenses(), from, count);
+    }
+
+    @Override
+    public List<LedgerSnapshot.SavingsRow> savings(int from, int count) throws IOException {
+        return page(snapshot().getSavings(), from, count);
+    }
+
+    @Override
+    public int[] inCategory(Section section, String category) throws IOException {
+        LedgerSnapshot snapshot = snapshot();
+        String wanted = category.toLowerCase(Locale.ROOT);
+        List<String> categories = switch (section) {
+            case INCOME -> snapshot.getIncomes().stream().map(LedgerSnapshot.IncomeRow::source).toList();
+            case EXPENSE -> snapshot.getExpenses().stream().map(LedgerSnapshot.ExpenseRow::category).toList();
+            case SAVINGS -> snapshot.getSavings().stream().map(LedgerSnapshot.SavingsRow::category).toList();
+        };
+        int[] rows = new int[categories.size()];
+        int found = 0;
+        for (int i = 0; i < categories.size(); i++) {
+            if (categories.get(i).toLowerCase(Locale.ROOT).equals(wanted)) rows[found++] = i;
+        }
+        return Arrays.copyOf(rows, found);
+    }
+
+    @Override
+    public LedgerSnapshot.Transactions between(Section section, long from, long to) throws IOException {
+        LedgerSnapshot snapshot = snapshot();
+        LedgerSnapshot.Transactions all = switch (section) {
+            case INCOME -> LedgerSnapshot.Transactions.NONE;
+            case EXPENSE -> snapshot.getSpending();
+            case SAVINGS -> snapshot.getDeposits();
+        };
+        Integer[] order = new Integer[all.size()];
+        int found = 0;
+        for (int i = 0; i < all.size(); i++) {
+            long timestamp = all.timestamps()[i];
+            if (timestamp >= from && timestamp < to) order[found++] = i;
+        }
+        Arrays.sort(order, 0, found, (a, b) -> Long.compare(all.timestamps()[a], all.timestamps()[b]));
+
+        LedgerSnapshot.Transactions.Builder matches = new LedgerSnapshot.Transactions.Builder();
+        for (int i = 0; i < found; i++) {
+            int at = order[i];
+            matches.add(all.rows()[at], all.timestamps()[at], all.cents()[at]);
+        }
+        return matches.build();
+    }
+
+    /** The last snapshot read, read again when a save has replaced the file. */
+    private synchronized LedgerSnapshot snapshot() throws IOException {
+        Path current = DataManager.snapshotFile(dir);
+        BasicFileAttributes attributes = current == null ? null
+                : Files.readAttributes(current, BasicFileAttributes.class);
+        if (snapshot != null && Objects.equals(file, current) && (current == null
+                || Objects.equals(fileKey, attributes.fileKey())
+                && modified.equals(attributes.lastModifiedTime()) && size == attributes.size())) {
+            return snapshot;
+        }
+        ArrayList<Income> incomes = new ArrayList<>();
+        ArrayList<Expense> expenses = new ArrayList<>();
+        ArrayList<Savings> savings = new ArrayList<>();
+        long sequence = DataManager.readSnapshot(dir, new TransactionLedger(), incomes, expenses, savings);
+        snapshot = LedgerSnapshot.of(incomes, expenses, savings, sequence);
+        file = current;
+        fileKey = current == null ? null : attributes.fileKey();
+        modified = current == null ? null : attributes.lastModifiedTime();
+        size = current == null ? 0 : attributes.size();
+        return snapshot;
+    }
+
+    private static <T> List<T> page(List<T> rows, int from, int count) {
+        int start = Math.min(from, rows.size());
+        return List.copyOf(rows.subList(start, (int) Math.min(rows.size(), (long) start + count)));
+    }
+}
@@ -0,0 +1,25 @@
+package app.walletpal.core;
+
+/** One income source. Created and changed only through {@link BudgetEngine}. */
+public final class Income extends BudgetRow {
+    private String source;
+    private long amount;
+    private String notes;
+
+    Income(String source, long amount, String notes) {
+        this.source = source;
+        this.amount = amount;
+        this.notes = notes;
+    }
+
+    public String getSource() { return source; }
+    public Money getAmount() { return Money.ofCents(amount); }
+    public long getAmountCents() { return amount; }
+    public String getNotes() { return notes; }
+
+    void set(String source, long amount, String notes) {
+        this.source = source;
+        this.amount = amount;
+        this.notes = notes;
+    }
+}
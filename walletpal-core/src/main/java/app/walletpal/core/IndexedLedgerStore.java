@@ -0,0 +1,559 @@
+package app.walletpal.core;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Budget kept as one sorted table, a B+-tree of height two: the leaves are blocks of
+ * about 4 KB of key/value entries in key order, and the root is the index of each
+ * block's first key at the end of the file. Next to the rows the table holds a category
+ * index and a date index, so a page of rows, the rows of one category or a month of
+ * transactions reads the root and the few blocks holding the answer.
+ *
+ * <pre>
+ * block    int entries, then (int keyLength, key, int valueLength, value) per entry
+ * root     int blocks, then (int keyLength, first key, long offset, int length) per block
+ * footer   long rootOffset, int magic 'WPIX', short version
+ * </pre>
+ *
+ * Keys compare as unsigned bytes; S is the section's first letter and numbers are
+ * fixed-width hex, so they sort numerically:
+ * <pre>
+ * c|S|category\0row     category index, category lower-cased; empty value
+ * d|S|timestamp|i       date index, timestamp with its sign bit flipped; int row, long cents
+ * m|S  m|seq            row count of the section, journal sequence; long
+ * r|S|row               the row; text fields as (int byteLength, UTF-8 bytes)
+ * </pre>
+ *
+ * Saves write a new table beside the old one and rename it over it, as the other
+ * formats do; edits in between go to the {@link ChangeJournal}. Thread-safe.
+ */
+public class IndexedLedgerStore implements LedgerStore {
+    static final String FILE = "walletpal_data.idx";
+    private static final int MAGIC = 0x57504958;
+    private static final short VERSION = 1;
+    private static final int BLOCK_BYTES = 4096;
+    private static final int FOOTER_BYTES = 14;
+    private static final byte[] SEQUENCE = ascii("m|seq");
+
+    private final Path dir;
+    private Table table;
+
+    public IndexedLedgerStore(Path dir) {
+        this.dir = dir;
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.exists(dir.resolve(FILE));
+    }
+
+    @Override
+    public void save(LedgerSnapshot snapshot) throws IOException {
+        DataManager.writeData(dir, snapshot, DataManager.Format.INDEXED);
+    }
+
+    @Override
+    public int count(Section section) throws IOException {
+        long[] count = {0};
+        table().scan(meta(section), after(meta(section)), (key, value) -> count[0] = value.getLong());
+        return (int) count[0];
+    }
+
+    @Override
+    public List<LedgerSnapshot.IncomeRow> incomes(int from, int count) throws IOException {
+        List<LedgerSnapshot.IncomeRow> rows = new ArrayList<>();
+        scanRows(Section.INCOME, from, count, value -> rows.add(income(value)));
+        return rows;
+    }
+
+    @Override
+    public List<LedgerSnapshot.ExpenseRow> expenses(int from, int count) throws IOException {
+        List<LedgerSnapshot.ExpenseRow> rows = new ArrayList<>();
+        scanRows(Section.EXPENSE, from, count, value -> rows.add(expense(value)));
+        return rows;
+    }
+
+    @Override
+    public List<LedgerSnapshot.SavingsRow> savings(int from, int count) throws IOException {
+        List<LedgerSnapshot.SavingsRow> rows = new ArrayList<>();
+        scanRows(Section.SAVINGS, from, count, value -> rows.add(saving(value)));
+        return rows;
+    }
+
+    @Override
+    public int[] inCategory(Section section, String category) throws IOException {
+        byte[] prefix = categoryKey(section, category.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8), 0);
+        prefix = Arrays.copyOf(prefix, prefix.length - 8);
+        int[][] rows = {new int[16]};
+        int[] found = {0};
+        table().scan(prefix, after(prefix), (key, value) -> {
+            if (found[0] == rows[0].length) rows[0] = Arrays.copyOf(rows[0], found[0] * 2);
+            rows[0][found[0]++] = (int) parseHex(key, key.length - 8, 8);
+        });
+        return Arrays.copyOf(rows[0], found[0]);
+    }
+
+    @Override
+    public LedgerSnapshot.Transactions between(Section section, long from, long to) throws IOException {
+        LedgerSnapshot.Transactions.Builder matches = new LedgerSnapshot.Transactions.Builder();
+        if (section == Section.INCOME || from >= to) return matches.build();
+        table().scan(dateKey(section, from, 0), dateKey(section, to, 0), (key, value) ->
+                matches.add(value.getInt(), parseHex(key, 4, 16) ^ Long.MIN_VALUE, value.getLong()));
+        return matches.build();
+    }
+
+    /** The open table, reopened when a save has replaced the file. */
+    private synchronized Table table() throws IOException {
+        Path file = dir.resolve(FILE);
+        if (!Files.exists(file)) throw new NoSuchFileException(file.toString());
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (table == null || !table.isCurrent(attributes)) table = Table.open(file, attributes);
+        return table;
+    }
+
+    private void scanRows(Section section, int from, int count, RowReader reader) throws IOException {
+        if (count <= 0) return;
+        long end = Math.min((long) from + count, 0xFFFFFFFFL);
+        table().scan(rowKey(section, from), rowKey(section, end), (key, value) -> reader.read(value));
+    }
+
+    private interface RowReader {
+        void read(ByteBuffer value);
+    }
+
+    /** Writes {@code snapshot} as a complete table. */
+    static void write(LedgerSnapshot snapshot, OutputStream target) throws IOException {
+        TableWriter out = new TableWriter(target);
+
+        byte[][] expenseCategories = lowerCased(snapshot.getExpenses(), LedgerSnapshot.ExpenseRow::category);
+        byte[][] incomeSources = lowerCased(snapshot.getIncomes(), LedgerSnapshot.IncomeRow::source);
+        byte[][] savingsCategories = lowerCased(snapshot.getSavings(), LedgerSnapshot.SavingsRow::category);
+        writeCategories(out, Section.EXPENSE, expenseCategories);
+        writeCategories(out, Section.INCOME, incomeSources);
+        writeCategories(out, Section.SAVINGS, savingsCategories);
+
+        writeDates(out, Section.EXPENSE, snapshot.getSpending());
+        writeDates(out, Section.SAVINGS, snapshot.getDeposits());
+
+        out.value().writeLong(snapshot.getExpenses().size());
+        out.put(meta(Section.EXPENSE));
+        out.value().writeLong(snapshot.getIncomes().size());
+        out.put(meta(Section.INCOME));
+        out.value().writeLong(snapshot.getSavings().size());
+        out.put(meta(Section.SAVINGS));
+        out.value().writeLong(snapshot.getSequence());
+        out.put(SEQUENCE);
+
+        for (int i = 0; i < snapshot.getExpenses().size(); i++) {
+            LedgerSnapshot.ExpenseRow row = snapshot.getExpenses().get(i);
+            DataOutputStream value = out.value();
+            writeString(value, row.category());
+            value.writeLong(row.limit().cents());
+            value.writeLong(row.spent().cents());
+            writeString(value, row.notes());
+            out.put(rowKey(Section.EXPENSE, i));
+        }
+        for (int i = 0; i < snapshot.getIncomes().size(); i++) {
+            LedgerSnapshot.IncomeRow row = snapshot.getIncomes().get(i);
+            DataOutputStream value = out.value();
+            writeString(value, row.source());
+            value.writeLong(row.amount().cents());
+            writeString(value, row.notes());
+            out.put(rowKey(Section.INCOME, i));
+        }
+        for (int i = 0; i < snapshot.getSavings().size(); i++) {
+            LedgerSnapshot.SavingsRow row = snapshot.getSavings().get(i);
+            DataOutputStream value = out.value();
+            writeString(value, row.category());
+            value.writeLong(row.goal().cents());
+            value.writeLong(row.saved().cents());
+            writeString(value, row.notes());
+            out.put(rowKey(Section.SAVINGS, i));
+        }
+        out.finish();
+    }
+
+    private static <T> byte[][] lowerCased(List<T> rows, Function<T, String> category) {
+        byte[][] keys = new byte[rows.size()][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = category.apply(rows.get(i)).toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        }
+        return keys;
+    }
+
+    private static void writeCategories(TableWriter out, Section section, byte[][] categories) throws IOException {
+        Integer[] order = new Integer[categories.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(categories[a], categories[b]));
+        for (int row : order) out.put(categoryKey(section, categories[row], row));
+    }
+
+    private static void writeDates(TableWriter out, Section section, LedgerSnapshot.Transactions transactions)
+            throws IOException {
+        long[] timestamps = transactions.timestamps();
+        Integer[] order = new Integer[transactions.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(i -> timestamps[i]));
+        for (int i : order) {
+            DataOutputStream value = out.value();
+            value.writeInt(transactions.rows()[i]);
+            value.writeLong(transactions.cents()[i]);
+            out.put(dateKey(section, timestamps[i], i));
+        }
+    }
+
+    /**
+     * Fills the lists from the table in {@code file} and returns the snapshot's journal
+     * sequence. A file that is not a readable table adds an issue and loads nothing.
+     */
+    static long read(Path file, TransactionLedger ledger, ArrayList<Income> incomes, ArrayList<Expense> expenses,
+                     ArrayList<Savings> savings, List<LoadReport.Issue> issues) throws IOException {
+        Table table;
+        try {
+            table = Table.open(file, Files.readAttributes(file, BasicFileAttributes.class));
+        } catch (CorruptTableException e) {
+            issues.add(new LoadReport.Issue(0, e.getMessage()));
+            return 0;
+        }
+        long[] sequence = {0};
+        int firstExpense = expenses.size();
+        int firstSaving = savings.size();
+        LongList spent = new LongList();
+        LongList saved = new LongList();
+        LedgerSnapshot.Transactions.Builder spending = new LedgerSnapshot.Transactions.Builder();
+        LedgerSnapshot.Transactions.Builder deposits = new LedgerSnapshot.Transactions.Builder();
+        try {
+            table.scan(SEQUENCE, after(SEQUENCE), (key, value) -> sequence[0] = value.getLong());
+            table.scan(rowKey(Section.INCOME, 0), after(rowPrefix(Section.INCOME)), (key, value) -> {
+                LedgerSnapshot.IncomeRow row = income(value);
+                incomes.add(new Income(row.source(), row.amount().cents(), row.notes()));
+            });
+            table.scan(rowKey(Section.EXPENSE, 0), after(rowPrefix(Section.EXPENSE)), (key, value) -> {
+                LedgerSnapshot.ExpenseRow row = expense(value);
+                spent.add(row.spent().cents());
+                expenses.add(new Expense(ledger, row.category(), row.limit().cents(), row.notes()));
+            });
+            table.scan(rowKey(Section.SAVINGS, 0), after(rowPrefix(Section.SAVINGS)), (key, value) -> {
+                LedgerSnapshot.SavingsRow row = saving(value);
+                saved.add(row.saved().cents());
+                savings.add(new Savings(ledger, row.category(), row.goal().cents(), row.notes()));
+            });
+            table.scan(datePrefix(Section.EXPENSE), after(datePrefix(Section.EXPENSE)), (key, value) ->
+                    spending.add(value.getInt(), parseHex(key, 4, 16) ^ Long.MIN_VALUE, value.getLong()));
+            table.scan(datePrefix(Section.SAVINGS), after(datePrefix(Section.SAVINGS)), (key, value) ->
+                    deposits.add(value.getInt(), parseHex(key, 4, 16) ^ Long.MIN_VALUE, value.getLong()));
+        } catch (CorruptTableException e) {
+            issues.add(new LoadReport.Issue(0, e.getMessage()));
+            incomes.clear();
+            expenses.clear();
+            savings.clear();
+            return 0;
+        }
+        DataManager.restoreHistory(expenses.subList(firstExpense, expenses.size()), spent.toArray(), spending.build(),
+                savings.subList(firstSaving, savings.size()), saved.toArray(), deposits.build(), issues);
+        return sequence[0];
+    }
+
+    private static LedgerSnapshot.IncomeRow income(ByteBuffer value) {
+        String source = readString(value);
+        Money amount = Money.ofCents(value.getLong());
+        return new LedgerSnapshot.IncomeRow(source, amount, readString(value));
+    }
+
+    private static LedgerSnapshot.ExpenseRow expense(ByteBuffer value) {
+        String category = readString(value);
+        Money limit = Money.ofCents(value.getLong());
+        Money spent = Money.ofCents(value.getLong());
+        return new LedgerSnapshot.ExpenseRow(category, limit, spent, readString(value));
+    }
+
+    private static LedgerSnapshot.SavingsRow saving(ByteBuffer value) {
+        String category = readString(value);
+        Money goal = Money.ofCents(value.getLong());
+        Money saved = Money.ofCents(value.getLong());
+        return new LedgerSnapshot.SavingsRow(category, goal, saved, readString(value));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] rowPrefix(Section section) {
+        return prefix('r', section, 0);
+    }
+
+    private static byte[] rowKey(Section section, long row) {
+        byte[] key = prefix('r', section, 8);
+        hex(key, 4, row, 8);
+        return key;
+    }
+
+    private static byte[] categoryKey(Section section, byte[] category, int row) {
+        byte[] key = prefix('c', section, category.length + 9);
+        System.arraycopy(category, 0, key, 4, category.length);
+        hex(key, key.length - 8, row, 8);
+        return key;
+    }
+
+    private static byte[] datePrefix(Section section) {
+        return prefix('d', section, 0);
+    }
+
+    private static byte[] dateKey(Section section, long timestamp, int index) {
+        byte[] key = prefix('d', section, 25);
+        hex(key, 4, timestamp ^ Long.MIN_VALUE, 16);
+        key[20] = '|';
+        hex(key, 21, index, 8);
+        return key;
+    }
+
+    private static byte[] meta(Section section) {
+        return new byte[] {'m', '|', (byte) section.name().charAt(0)};
+    }
+
+    private static byte[] prefix(char kind, Section section, int extra) {
+        byte[] key = new byte[4 + extra];
+        key[0] = (byte) kind;
+        key[1] = '|';
+        key[2] = (byte) section.name().charAt(0);
+        key[3] = '|';
+        return key;
+    }
+
+    /** The first key past every key starting with {@code prefix}. */
+    private static byte[] after(byte[] prefix) {
+        byte[] end = prefix.clone();
+        end[end.length - 1]++;
+        return end;
+    }
+
+    private static void hex(byte[] key, int at, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            key[at + i] = (byte) Character.forDigit((int) (value & 0xF), 16);
+            value >>>= 4;
+        }
+    }
+
+    private static long parseHex(byte[] key, int at, int digits) {
+        long value = 0;
+        for (int i = 0; i < digits; i++) value = value << 4 | Character.digit(key[at + i], 16);
+        return value;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class LongList {
+        private long[] values = new long[64];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class CorruptTableException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CorruptTableException(Path file) {
+            super(file.getFileName() + " is not an indexed snapshot, or is truncated or corrupt");
+        }
+    }
+
+    private interface EntryVisitor {
+        void visit(byte[] key, ByteBuffer value);
+    }
+
+    /** Appends entries, which must come in key order, a block at a time. */
+    private static final class TableWriter {
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_BYTES * 2);
+        private final DataOutputStream blockOut = new DataOutputStream(block);
+        private final ByteArrayOutputStream valueBytes = new ByteArrayOutputStream(256);
+        private final DataOutputStream valueOut = new DataOutputStream(valueBytes);
+        private final ByteArrayOutputStream root = new ByteArrayOutputStream();
+        private final DataOutputStream rootOut = new DataOutputStream(root);
+        private byte[] firstKey;
+        private byte[] lastKey;
+        private int entries;
+        private int blocks;
+        private long offset;
+
+        TableWriter(OutputStream target) {
+            out = new DataOutputStream(new BufferedOutputStream(target, 1 << 16));
+        }
+
+        /** The value of the next entry, empty until written to. */
+        DataOutputStream value() {
+            return valueOut;
+        }
+
+        void put(byte[] key) throws IOException {
+            if (lastKey != null && Arrays.compareUnsigned(lastKey, key) >= 0) {
+                throw new IllegalStateException("keys out of order");
+            }
+            if (entries > 0 && block.size() + key.length + valueBytes.size() + 8 > BLOCK_BYTES) flushBlock();
+            if (entries == 0) firstKey = key;
+            blockOut.writeInt(key.length);
+            blockOut.write(key);
+            blockOut.writeInt(valueBytes.size());
+            valueBytes.writeTo(blockOut);
+            valueBytes.reset();
+            entries++;
+            lastKey = key;
+        }
+
+        void finish() throws IOException {
+            if (entries > 0) flushBlock();
+            out.writeInt(blocks);
+            root.writeTo(out);
+            out.writeLong(offset);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.flush();
+        }
+
+        private void flushBlock() throws IOException {
+            out.writeInt(entries);
+            block.writeTo(out);
+            int length = 4 + block.size();
+            rootOut.writeInt(firstKey.length);
+            rootOut.write(firstKey);
+            rootOut.writeLong(offset);
+            rootOut.writeInt(length);
+            offset += length;
+            blocks++;
+            block.reset();
+            entries = 0;
+        }
+    }
+
+    /** The root of an open table; blocks are read from the file as scans reach them. */
+    private static final class Table {
+        private final Path file;
+        private final Object fileKey;
+        private final long modified;
+        private final long size;
+        private final byte[][] firstKeys;
+        private final long[] offsets;
+        private final int[] lengths;
+
+        private Table(Path file, BasicFileAttributes attributes, byte[][] firstKeys, long[] offsets, int[] lengths) {
+            this.file = file;
+            this.fileKey = attributes.fileKey();
+            this.modified = attributes.lastModifiedTime().toMillis();
+            this.size = attributes.size();
+            this.firstKeys = firstKeys;
+            this.offsets = offsets;
+            this.lengths = lengths;
+        }
+
+        static Table open(Path file, BasicFileAttributes attributes) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < FOOTER_BYTES + 4) throw new CorruptTableException(file);
+                ByteBuffer footer = read(channel, size - FOOTER_BYTES, FOOTER_BYTES);
+                long rootOffset = footer.getLong();
+                if (footer.getInt() != MAGIC || footer.getShort() != VERSION
+                        || rootOffset < 0 || rootOffset > size - FOOTER_BYTES - 4) {
+                    throw new CorruptTableException(file);
+                }
+                ByteBuffer root = read(channel, rootOffset, (int) (size - FOOTER_BYTES - rootOffset));
+                int blocks = root.getInt();
+                byte[][] firstKeys = new byte[blocks][];
+                long[] offsets = new long[blocks];
+                int[] lengths = new int[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    firstKeys[i] = new byte[root.getInt()];
+                    root.get(firstKeys[i]);
+                    offsets[i] = root.getLong();
+                    lengths[i] = root.getInt();
+                }
+                return new Table(file, attributes, firstKeys, offsets, lengths);
+            } catch (BufferUnderflowException | NegativeArraySizeException e) {
+                throw new CorruptTableException(file);
+            }
+        }
+
+        boolean isCurrent(BasicFileAttributes attributes) {
+            return Objects.equals(fileKey, attributes.fileKey()) && size == attributes.size()
+                    && modified == attributes.lastModifiedTime().toMillis();
+        }
+
+        /** Visits the entries with keys from {@code from} inclusive to {@code to} exclusive, in order. */
+        void scan(byte[] from, byte[] to, EntryVisitor visitor) throws IOException {
+            int block = firstBlock(from);
+            if (block < 0) return;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                for (; block < firstKeys.length && Arrays.compareUnsigned(firstKeys[block], to) < 0; block++) {
+                    ByteBuffer in = read(channel, offsets[block], lengths[block]);
+                    for (int entries = in.getInt(); entries > 0; entries--) {
+                        byte[] key = new byte[in.getInt()];
+                        in.get(key);
+                        int length = in.getInt();
+                        int end = in.position() + length;
+                        if (Arrays.compareUnsigned(key, to) >= 0) return;
+                        if (Arrays.compareUnsigned(key, from) >= 0) {
+                            visitor.visit(key, in.slice(in.position(), length));
+                        }
+                        in.position(end);
+                    }
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                     | NegativeArraySizeException e) {
+                throw new CorruptTableException(file);
+            }
+        }
+
+        /** The last block whose first key is at most {@code key}, or 0 if none. */
+        private int firstBlock(byte[] key) {
+            if (firstKeys.length == 0) return -1;
+            int low = 0;
+            int high = firstKeys.length - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (Arrays.compareUnsigned(firstKeys[middle], key) <= 0) low = middle;
+                else high = middle - 1;
+            }
+            return low;
+        }
+
+        private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+            }
+            return buffer.flip();
+        }
+    }
+}
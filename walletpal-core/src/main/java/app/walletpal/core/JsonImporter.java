@@ -0,0 +1,148 @@
+package app.walletpal.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Adds the rows of a JSON export to a {@link SharedBudget} under the allocation rule.
+ * Rows are staged as the parser reads them: incomes as they are, and each expense and
+ * savings goal with a reservation of its limit or goal, so a row the income left free
+ * cannot cover is rejected instead of over-allocating the budget. A row's transactions
+ * come along with it. Rows are committed in batches, each waited for before the next is
+ * staged, so the engine's thread keeps up with a large file and the import holds no more
+ * than one batch. Reservations draw only on committed income, so incomes staged before a
+ * limit or goal are committed first; exports list incomes before the rows they fund.
+ */
+public class JsonImporter {
+
+    public record Report(int imported, List<String> rejected, List<LoadReport.Issue> issues) {
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder("Imported ").append(imported).append(" row(s)");
+            if (!rejected.isEmpty()) {
+                text.append("\n").append(rejected.size())
+                        .append(" row(s) would exceed total income and were skipped:");
+                rejected.stream().limit(5).forEach(row -> text.append("\n").append(row));
+                if (rejected.size() > 5) text.append("\n...");
+            }
+            if (!issues.isEmpty()) {
+                text.append("\n").append(issues.size()).append(" row(s) could not be read and were skipped");
+            }
+            return text.toString();
+        }
+    }
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final SharedBudget budget;
+
+    /**
+     * Imports into {@code budget}. {@link #run} waits for its batches to commit, so call it
+     * off the engine's thread unless the budget commits on the submitting thread.
+     */
+    public JsonImporter(SharedBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Imports {@code file} and returns once every batch is committed.
+     *
+     * @throws IOException if the file cannot be read; batches committed before the
+     *         failure stay in the budget
+     */
+    public Report run(Path file) throws IOException, InterruptedException {
+        Session session = new Session();
+        List<LoadReport.Issue> issues = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file)) {
+            JsonLedgerFormat.read(in, session.scratch, session::income, session::expense, session::savings, issues);
+            session.commit();
+        } catch (InterruptedIOException e) {
+            throw new InterruptedException(e.getMessage());
+        } finally {
+            session.batch.discard();
+        }
+        return new Report(session.imported, session.rejected, issues);
+    }
+
+    /** One import: the batch being staged and what has been imported or rejected so far. */
+    private final class Session {
+        /** Holds each row's transactions only until they are staged. */
+        final TransactionLedger scratch = new TransactionLedger();
+        final List<String> rejected = new ArrayList<>();
+        LedgerBatch batch = budget.newBatch();
+        int staged;
+        int imported;
+        boolean incomesStaged;
+
+        void income(Income row) throws IOException {
+            batch.addIncome(row.getSource(), row.getAmount(), row.getNotes());
+            incomesStaged = true;
+            staged();
+        }
+
+        void expense(Expense row) throws IOException {
+            try {
+                if (incomesStaged) commit();
+                Expense added;
+                try {
+                    added = batch.addExpense(row.getCategory(), row.getLimit(), row.getNotes());
+                } catch (BudgetException e) {
+                    rejected.add("Expense " + row.getCategory() + " (" + row.getLimit() + ")");
+                    return;
+                }
+                scratch.forEach(row.getAccount(), (timestamp, cents) -> batch.copySpend(added, cents, timestamp));
+                staged();
+            } finally {
+                scratch.closeAccount(row.getAccount());
+            }
+        }
+
+        void savings(Savings row) throws IOException {
+            try {
+                if (incomesStaged) commit();
+                Savings added;
+                try {
+                    added = batch.addSavings(row.getCategory(), row.getGoal(), row.getNotes());
+                } catch (BudgetException e) {
+                    rejected.add("Savings goal " + row.getCategory() + " (" + row.getGoal() + ")");
+                    return;
+                }
+                scratch.forEach(row.getAccount(), (timestamp, cents) -> batch.copyDeposit(added, cents, timestamp));
+                staged();
+            } finally {
+                scratch.closeAccount(row.getAccount());
+            }
+        }
+
+        private void staged() throws IOException {
+            imported++;
+            if (++staged == BATCH_SIZE) commit();
+        }
+
+        /** Submits the staged rows, waits for them to commit and starts a new batch. */
+        void commit() throws IOException {
+            LedgerBatch full = batch;
+            batch = budget.newBatch();
+            staged = 0;
+            incomesStaged = false;
+            if (full.isEmpty()) {
+                full.discard();
+                return;
+            }
+            try {
+                budget.submit(full).get();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("Import interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package app.walletpal.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The whole budget as one JSON document, for exchange with other tools:
+ *
+ * <pre>
+ * {"walletpal": 1,
+ *  "incomes":  [{"source": "Salary", "amount": 3000.00, "notes": ""}],
+ *  "expenses": [{"category": "Food", "limit": 400.00, "spent": 12.50, "notes": "",
+ *                "transactions": [{"time": 1704067200000, "amount": 12.50}]}],
+ *  "savings":  [{"category": "Car", "goal": 5000.00, "saved": 0.00, "notes": "", "transactions": []}]}
+ * </pre>
+ *
+ * Amounts are decimal numbers and times epoch milliseconds. Both directions stream
+ * through Jackson's parser and generator without building a tree, and reading hands on
+ * each row as soon as it is read, so it holds no more than that row. Unknown fields are
+ * ignored.
+ */
+final class JsonLedgerFormat {
+    private static final int VERSION = 1;
+    private static final JsonFactory FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+            .build();
+
+    private JsonLedgerFormat() {}
+
+    static void write(LedgerSnapshot snapshot, OutputStream out) throws IOException {
+        StringBuilder number = new StringBuilder(24);
+        try (JsonGenerator json = FACTORY.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeNumberField("walletpal", VERSION);
+
+            json.writeArrayFieldStart("incomes");
+            for (LedgerSnapshot.IncomeRow row : snapshot.getIncomes()) {
+                json.writeStartObject();
+                json.writeStringField("source", row.source());
+                writeMoney(json, number, "amount", row.amount().cents());
+                json.writeStringField("notes", row.notes());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            int[] spending = byRow(snapshot.getSpending(), snapshot.getExpenses().size());
+            json.writeArrayFieldStart("expenses");
+            for (int i = 0; i < snapshot.getExpenses().size(); i++) {
+                LedgerSnapshot.ExpenseRow row = snapshot.getExpenses().get(i);
+                json.writeStartObject();
+                json.writeStringField("category", row.category());
+                writeMoney(json, number, "limit", row.limit().cents());
+                writeMoney(json, number, "spent", row.spent().cents());
+                json.writeStringField("notes", row.notes());
+                writeTransactions(json, number, snapshot.getSpending(), spending, i);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            int[] deposits = byRow(snapshot.getDeposits(), snapshot.getSavings().size());
+            json.writeArrayFieldStart("savings");
+            for (int i = 0; i < snapshot.getSavings().size(); i++) {
+                LedgerSnapshot.SavingsRow row = snapshot.getSavings().get(i);
+                json.writeStartObject();
+                json.writeStringField("category", row.category());
+                writeMoney(json, number, "goal", row.goal().cents());
+                writeMoney(json, number, "saved", row.saved().cents());
+                json.writeStringField("notes", row.notes());
+                writeTransactions(json, number, snapshot.getDeposits(), deposits, i);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Positions of the transactions grouped by row: those of row {@code r} are at
+     * {@code order[order[r]]} up to {@code order[order[r + 1]]}, after the {@code rows + 1}
+     * group starts. Transactions of rows outside the section are left out.
+     */
+    private static int[] byRow(LedgerSnapshot.Transactions transactions, int rows) {
+        int[] order = new int[rows + 1 + transactions.size()];
+        for (int row : transactions.rows()) {
+            if (row >= 0 && row < rows) order[row + 1]++;
+        }
+        order[0] = rows + 1;
+        for (int r = 1; r <= rows; r++) order[r] += order[r - 1];
+        int[] next = Arrays.copyOf(order, rows);
+        for (int i = 0; i < transactions.size(); i++) {
+            int row = transactions.rows()[i];
+            if (row >= 0 && row < rows) order[next[row]++] = i;
+        }
+        return order;
+    }
+
+    private static void writeTransactions(JsonGenerator json, StringBuilder number,
+                                          LedgerSnapshot.Transactions transactions, int[] order, int row)
+            throws IOException {
+        json.writeArrayFieldStart("transactions");
+        for (int at = order[row]; at < order[row + 1]; at++) {
+            int i = order[at];
+            json.writeStartObject();
+            json.writeNumberField("time", transactions.timestamps()[i]);
+            writeMoney(json, number, "amount", transactions.cents()[i]);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+
+    private static void writeMoney(JsonGenerator json, StringBuilder number, String field, long cents)
+            throws IOException {
+        number.setLength(0);
+        json.writeFieldName(field);
+        json.writeNumber(Money.appendTo(number, cents).toString());
+    }
+
+    /** Receives each row of a document as soon as it has been read. */
+    interface RowSink<T> {
+        void accept(T row) throws IOException;
+    }
+
+    /**
+     * Reads the document in {@code in}, handing its rows to the sinks in document order,
+     * with the transactions of expenses and savings goals recorded in {@code ledger}. Rows
+     * missing a field or holding an unreadable amount are skipped and added to
+     * {@code issues} with their line.
+     *
+     * @throws IOException if the document is not well-formed JSON or not a WalletPal
+     *         export, or a sink failed
+     */
+    static void read(InputStream in, TransactionLedger ledger, RowSink<Income> incomes,
+                     RowSink<Expense> expenses, RowSink<Savings> savings,
+                     List<LoadReport.Issue> issues) throws IOException {
+        try (JsonParser json = FACTORY.createParser(in)) {
+            if (json.nextToken() != JsonToken.START_OBJECT) throw new IOException("Not a WalletPal JSON export");
+            Row row = new Row();
+            while (json.nextToken() == JsonToken.FIELD_NAME) {
+                String field = json.currentName();
+                json.nextToken();
+                switch (field) {
+                    case "walletpal" -> {
+                        if (json.getIntValue() > VERSION) {
+                            throw new IOException("Unsupported export version " + json.getIntValue());
+                        }
+                    }
+                    case "incomes" -> readRows(json, row, () -> new Income(row.name, row.amount("amount"), row.notes),
+                            incomes, issues);
+                    case "expenses" -> readRows(json, row, () -> {
+                        long limit = row.amount("limit");
+                        long spent = row.amount("spent");
+                        row.checkTransactions();
+                        Expense expense = new Expense(ledger, row.name, limit, row.notes);
+                        row.replay(expense::spend);
+                        expense.adjustSpent(spent, System.currentTimeMillis());
+                        return expense;
+                    }, expenses, issues);
+                    case "savings" -> readRows(json, row, () -> {
+                        long goal = row.amount("goal");
+                        long saved = row.amount("saved");
+                        row.checkTransactions();
+                        Savings saving = new Savings(ledger, row.name, goal, row.notes);
+                        row.replay(saving::deposit);
+                        saving.adjustSaved(saved, System.currentTimeMillis());
+                        return saving;
+                    }, savings, issues);
+                    default -> json.skipChildren();
+                }
+            }
+        }
+    }
+
+    /** Builds a row from the fields just read; throws IllegalArgumentException if they do not make one. */
+    private interface RowFactory<T> {
+        T create();
+    }
+
+    private static <T> void readRows(JsonParser json, Row row, RowFactory<T> factory, RowSink<T> sink,
+                                     List<LoadReport.Issue> issues) throws IOException {
+        if (json.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected an array at line " + json.currentLocation().getLineNr());
+        }
+        while (json.nextToken() == JsonToken.START_OBJECT) {
+            int line = json.currentLocation().getLineNr();
+            row.read(json);
+            T created;
+            try {
+                if (row.name == null) throw new IllegalArgumentException("row without a category or source");
+                created = factory.create();
+            } catch (IllegalArgumentException e) {
+                issues.add(new LoadReport.Issue(line, e.getMessage()));
+                continue;
+            }
+            sink.accept(created);
+        }
+    }
+
+    /** The fields of the row being read, reused from row to row. */
+    private static final class Row {
+        private final Map<String, String> amounts = new HashMap<>();
+        private long[] times = new long[16];
+        private long[] cents = new long[16];
+        private String problem;
+        private int transactions;
+        String name;
+        String notes;
+
+        void read(JsonParser json) throws IOException {
+            amounts.clear();
+            transactions = 0;
+            problem = null;
+            name = null;
+            notes = "";
+            while (json.nextToken() == JsonToken.FIELD_NAME) {
+                String field = json.currentName();
+                if (!json.nextToken().isScalarValue()) {
+                    if (field.equals("transactions")) readTransactions(json);
+                    else json.skipChildren();
+                    continue;
+                }
+                switch (field) {
+                    case "source", "category" -> name = json.getText();
+                    case "notes" -> notes = json.getText();
+                    default -> amounts.put(field, json.getText());
+                }
+            }
+        }
+
+        private void readTransactions(JsonParser json) throws IOException {
+            if (json.currentToken() != JsonToken.START_ARRAY) {
+                json.skipChildren();
+                return;
+            }
+            while (json.nextToken() == JsonToken.START_OBJECT) {
+                long time = 0;
+                long amount = 0;
+                boolean hasAmount = false;
+                while (json.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = json.currentName();
+                    json.nextToken();
+                    switch (field) {
+                        case "time" -> time = json.getValueAsLong();
+                        case "amount" -> {
+                            try {
+                                amount = cents(json);
+                                hasAmount = true;
+                            } catch (IllegalArgumentException e) {
+                                if (problem == null) problem = e.getMessage();
+                            }
+                        }
+                        default -> json.skipChildren();
+                    }
+                }
+                if (!hasAmount && problem == null) problem = "transaction without amount";
+                if (transactions == times.length) {
+                    times = Arrays.copyOf(times, transactions * 2);
+                    cents = Arrays.copyOf(cents, transactions * 2);
+                }
+                times[transactions] = time;
+                cents[transactions] = amount;
+                transactions++;
+            }
+        }
+
+        /** The amount in cents; missing or unreadable amounts throw IllegalArgumentException. */
+        long amount(String field) {
+            String text = amounts.get(field);
+            if (text == null) throw new IllegalArgumentException("row without " + field);
+            return parse(text);
+        }
+
+        /**
+         * The current number in cents, read straight from the parser's buffer when it is a
+         * plain decimal with at most two decimals, as exports write them.
+         */
+        private static long cents(JsonParser json) throws IOException {
+            char[] text = json.getTextCharacters();
+            int from = json.getTextOffset();
+            int to = from + json.getTextLength();
+            int i = from;
+            boolean negative = i < to && text[i] == '-';
+            if (negative) i++;
+            long cents = 0;
+            int digits = 0;
+            int decimals = -1;
+            for (; i < to && digits < 16; i++) {
+                char c = text[i];
+                if (c >= '0' && c <= '9') {
+                    cents = cents * 10 + (c - '0');
+                    digits++;
+                    if (decimals >= 0) decimals++;
+                } else if (c == '.' && decimals < 0) {
+                    decimals = 0;
+                } else {
+                    break;
+                }
+            }
+            if (i < to || digits == 0 || decimals > 2) return parse(json.getText());
+            for (int d = Math.max(decimals, 0); d < 2; d++) cents *= 10;
+            return negative ? -cents : cents;
+        }
+
+        private static long parse(String amount) {
+            try {
+                return Money.parse(amount).cents();
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("unreadable amount " + amount);
+            }
+        }
+
+        void checkTransactions() {
+            if (problem != null) throw new IllegalArgumentException(problem);
+        }
+
+        void replay(Posting posting) {
+            for (int i = 0; i < transactions; i++) posting.post(cents[i], times[i]);
+        }
+    }
+
+    private interface Posting {
+        void post(long cents, long timestamp);
+    }
+}
@@ -0,0 +1,270 @@
+package app.walletpal.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Stages inserts, edits and deletes against a {@link BudgetEngine} and applies them
+ * together. On {@link #commit()} each section reports at most one removal and one
+ * insertion, and the totals change once, so listeners, validation and the save
+ * journal run once per batch instead of once per row.
+ *
+ * <p>Edits are applied first, then removals, then additions, then spends and deposits,
+ * which are reported one by one so their dates reach listeners. Rows are matched by
+ * identity. A change that takes income (a new or raised limit or goal, a lowered or
+ * deleted income) reserves it from the engine's constraints as it is staged, and throws
+ * if the headroom is not there, so the UI or another batch cannot allocate the same
+ * income before this one commits. Income a change frees is given back once committed.
+ * Staging may happen off the engine's thread, as long as the batch itself is used by one
+ * thread; edits are measured against the row's values when staged.
+ */
+public class LedgerBatch {
+    private final BudgetEngine engine;
+    final Staged<Income> incomes = new Staged<>();
+    final Staged<Expense> expenses = new Staged<>();
+    final Staged<Savings> savings = new Staged<>();
+    /** Headroom taken from the engine's constraints by rows staged so far. */
+    long reserved;
+    private boolean committed;
+
+    public LedgerBatch(BudgetEngine engine) {
+        this.engine = engine;
+    }
+
+    public Income addIncome(String source, Money amount, String notes) {
+        checkOpen();
+        Income row = new Income(source, amount.cents(), notes);
+        incomes.added.add(row);
+        return row;
+    }
+
+    /** @throws BudgetException if the limit exceeds the headroom left */
+    public Expense addExpense(String category, Money limit, String notes) {
+        reserve(limit.cents(), "Cannot add expense: Would exceed total income!");
+        Expense row = new Expense(engine.getLedger(), category, limit.cents(), notes);
+        expenses.added.add(row);
+        return row;
+    }
+
+    /** @throws BudgetException if the goal exceeds the headroom left */
+    public Savings addSavings(String category, Money goal, String notes) {
+        reserve(goal.cents(), "Cannot add savings goal: Would exceed total income!");
+        Savings row = new Savings(engine.getLedger(), category, goal.cents(), notes);
+        savings.added.add(row);
+        return row;
+    }
+
+    /** @throws BudgetException if limits and goals would exceed the income left */
+    public LedgerBatch remove(Income row) {
+        if (!incomes.removed.contains(row)) {
+            reserve(row.getAmountCents(), "Cannot delete income: Limits and goals would exceed total income!");
+            incomes.removed.add(row);
+        }
+        return this;
+    }
+
+    public LedgerBatch remove(Expense row) {
+        checkOpen();
+        expenses.removed.add(row);
+        return this;
+    }
+
+    public LedgerBatch remove(Savings row) {
+        checkOpen();
+        savings.removed.add(row);
+        return this;
+    }
+
+    /** @throws BudgetException if lowering the amount would leave limits and goals above income */
+    public LedgerBatch updateIncome(Income row, String source, Money amount, String notes) {
+        reserve(Math.max(0, row.getAmountCents() - amount.cents()),
+                "Cannot lower income: Limits and goals would exceed total income!");
+        incomes.edit(row, r -> r.set(source, amount.cents(), notes));
+        return this;
+    }
+
+    /**
+     * A changed spent total is recorded as an adjustment dated at commit time.
+     *
+     * @throws BudgetException if raising the limit would exceed the headroom left
+     */
+    public LedgerBatch updateExpense(Expense row, String category, Money limit, Money spent, String notes) {
+        reserve(Math.max(0, limit.cents() - row.getLimitCents()), "Cannot change limit: Would exceed total income!");
+        expenses.edit(row, r -> {
+            r.set(category, limit.cents(), notes);
+            r.adjustSpent(spent.cents(), System.currentTimeMillis());
+        });
+        return this;
+    }
+
+    /**
+     * A changed saved total is recorded as an adjustment dated at commit time.
+     *
+     * @throws BudgetException if raising the goal would exceed the headroom left
+     */
+    public LedgerBatch updateSavings(Savings row, String category, Money goal, Money saved, String notes) {
+        reserve(Math.max(0, goal.cents() - row.getGoalCents()), "Cannot change goal: Would exceed total income!");
+        savings.edit(row, r -> {
+            r.set(category, goal.cents(), notes);
+            r.adjustSaved(saved.cents(), System.currentTimeMillis());
+        });
+        return this;
+    }
+
+    /** Takes {@code cents} of headroom until the batch commits or is discarded. */
+    private void reserve(long cents, String message) {
+        checkOpen();
+        if (cents == 0) return;
+        if (!engine.getConstraints().tryReserve(cents)) throw new BudgetException(message);
+        reserved += cents;
+    }
+
+    private void checkOpen() {
+        if (committed) throw new IllegalStateException("Batch already committed");
+    }
+
+    /**
+     * Records a spend when the batch commits, after its edits, removals and additions.
+     * Dropped if the row is not in the engine by then.
+     *
+     * @throws BudgetException if the amount is negative
+     */
+    public LedgerBatch spend(Expense row, Money amount, long timestamp) {
+        expenses.post(row, amount, timestamp);
+        return this;
+    }
+
+    /** Like {@link #spend}, for a savings goal. */
+    public LedgerBatch deposit(Savings row, Money amount, long timestamp) {
+        savings.post(row, amount, timestamp);
+        return this;
+    }
+
+    /** Like {@link #spend}, for a transaction copied from another ledger, which may be a negative adjustment. */
+    void copySpend(Expense row, long cents, long timestamp) {
+        expenses.postings.add(new Posting<>(row, cents, timestamp));
+    }
+
+    void copyDeposit(Savings row, long cents, long timestamp) {
+        savings.postings.add(new Posting<>(row, cents, timestamp));
+    }
+
+    public boolean isEmpty() {
+        return incomes.isEmpty() && expenses.isEmpty() && savings.isEmpty();
+    }
+
+    public void commit() {
+        checkOpen();
+        committed = true;
+        engine.apply(this);
+    }
+
+    /**
+     * Takes the batch over for {@code owner}, which commits it later merged with others, so
+     * it can no longer be committed or discarded directly.
+     */
+    void handOver(BudgetEngine owner) {
+        if (owner != engine) throw new IllegalArgumentException("Batch belongs to a different budget");
+        checkOpen();
+        committed = true;
+    }
+
+    /**
+     * Stages everything {@code later} holds after what this batch holds, as if both were
+     * one batch; false, changing nothing, if the merge would apply its changes in a
+     * different order than committing the two in turn.
+     */
+    boolean absorb(LedgerBatch later) {
+        if (incomes.conflicts(later.incomes) || expenses.conflicts(later.expenses)
+                || savings.conflicts(later.savings)) {
+            return false;
+        }
+        incomes.absorb(later.incomes);
+        expenses.absorb(later.expenses);
+        savings.absorb(later.savings);
+        reserved += later.reserved;
+        return true;
+    }
+
+    /** Drops the batch without applying it, giving back any headroom it reserved. */
+    public void discard() {
+        checkOpen();
+        committed = true;
+        engine.getConstraints().release(reserved);
+        reserved = 0;
+    }
+
+    record Posting<T>(T row, long cents, long timestamp) {}
+
+    static final class Staged<T extends BudgetRow> {
+        final List<T> added = new ArrayList<>();
+        final Set<T> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<Posting<T>> postings = new ArrayList<>();
+        private final Map<T, List<Consumer<T>>> edits = new IdentityHashMap<>();
+        private final List<T> editOrder = new ArrayList<>();
+
+        void edit(T row, Consumer<T> edit) {
+            edits.computeIfAbsent(row, r -> {
+                editOrder.add(r);
+                return new ArrayList<>(1);
+            }).add(edit);
+        }
+
+        void post(T row, Money amount, long timestamp) {
+            if (amount.isNegative()) throw new BudgetException("Amount cannot be negative!");
+            postings.add(new Posting<>(row, amount.cents(), timestamp));
+        }
+
+        void absorb(Staged<T> later) {
+            added.addAll(later.added);
+            removed.addAll(later.removed);
+            postings.addAll(later.postings);
+            for (T row : later.editOrder) later.edits.get(row).forEach(edit -> edit(row, edit));
+        }
+
+        /**
+         * Whether merging {@code later} would reorder its changes against this one's: it
+         * removes a row added here, or edits a row posted to here.
+         */
+        boolean conflicts(Staged<T> later) {
+            for (T row : later.removed) {
+                if (row.position < 0 && added.contains(row)) return true;
+            }
+            if (later.edits.isEmpty() || postings.isEmpty()) return false;
+            for (Posting<T> posting : postings) {
+                if (later.edits.containsKey(posting.row())) return true;
+            }
+            return false;
+        }
+
+        boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && edits.isEmpty() && postings.isEmpty();
+        }
+
+        /**
+         * Runs the staged edits, keeping the totals in step, and reports each edited row
+         * that is in {@code rows}. Rows still staged for adding are edited silently, and
+         * rows deleted meanwhile not at all.
+         */
+        void applyEdits(List<T> rows, Section section, Consumer<T> untrack, Consumer<T> track,
+                        ObjIntConsumer<Section> updated) {
+            for (T row : editOrder) {
+                if (row.deleted) continue;
+                int index = row.position;
+                boolean listed = index >= 0 && index < rows.size() && rows.get(index) == row;
+                if (listed) untrack.accept(row);
+                edits.get(row).forEach(edit -> edit.accept(row));
+                if (listed) {
+                    track.accept(row);
+                    updated.accept(section, index);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package app.walletpal.core;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-pass reader for walletpal_data.txt. Lines are scanned in place in a char
+ * buffer: delimiters are found by index and amounts are parsed straight from the
+ * buffer into cents, so the only objects created per row are its text fields and the
+ * row itself.
+ */
+final class LedgerParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_FIELDS = 4;
+    private static final long MAX_CENTS = Long.MAX_VALUE / 10;
+    private static final long INVALID = Long.MIN_VALUE;
+
+    private enum Section { NONE, INCOMES, EXPENSES, SAVINGS, TRANSACTIONS }
+
+    private final TransactionLedger ledger;
+    private final List<Income> incomes;
+    private final List<Expense> expenses;
+    private final List<Savings> savings;
+    private final List<LoadReport.Issue> issues;
+    private final int firstExpense;
+    private final int firstSaving;
+
+    private char[] buffer = new char[BUFFER_SIZE];
+    private final int[] delimiters = new int[MAX_FIELDS - 1];
+    private Section section = Section.NONE;
+    private long sequence;
+    private int version = 1;
+    private int lineNumber;
+
+    // Row totals as saved; reconciled against the transactions once the file is read.
+    private long[] spent = new long[64];
+    private long[] saved = new long[64];
+    private final LedgerSnapshot.Transactions.Builder spending = new LedgerSnapshot.Transactions.Builder();
+    private final LedgerSnapshot.Transactions.Builder deposits = new LedgerSnapshot.Transactions.Builder();
+
+    private LedgerParser(TransactionLedger ledger, List<Income> incomes, List<Expense> expenses, List<Savings> savings,
+                         List<LoadReport.Issue> issues) {
+        this.ledger = ledger;
+        this.incomes = incomes;
+        this.expenses = expenses;
+        this.savings = savings;
+        this.issues = issues;
+        this.firstExpense = expenses.size();
+        this.firstSaving = savings.size();
+    }
+
+    /**
+     * Appends every row in {@code in} to the lists, adds one issue per skipped line and
+     * returns the journal sequence recorded in the header (0 if there is none). Spends and
+     * deposits are recorded in {@code ledger}; rows saved without them get one opening
+     * transaction for their total.
+     */
+    static long parse(Reader in, TransactionLedger ledger, List<Income> incomes, List<Expense> expenses,
+                      List<Savings> savings, List<LoadReport.Issue> issues) throws IOException {
+        LedgerParser parser = new LedgerParser(ledger, incomes, expenses, savings, issues);
+        parser.run(in);
+        DataManager.restoreHistory(expenses.subList(parser.firstExpense, expenses.size()), parser.spent,
+                parser.spending.build(), savings.subList(parser.firstSaving, savings.size()), parser.saved,
+                parser.deposits.build(), issues);
+        return parser.sequence;
+    }
+
+    private void run(Reader in) throws IOException {
+        int start = 0;
+        int end = 0;
+        int scan = 0;
+        boolean eof = false;
+
+        while (true) {
+            int newline = -1;
+            for (int i = scan; i < end; i++) {
+                if (buffer[i] == '\n') {
+                    newline = i;
+                    break;
+                }
+            }
+
+            if (newline >= 0) {
+                line(start, newline);
+                start = newline + 1;
+                scan = start;
+                continue;
+            }
+            if (eof) {
+                if (start < end) line(start, end);
+                return;
+            }
+
+            // Keep the partial line and refill; grow only for a line longer than the buffer.
+            int pending = end - start;
+            if (pending == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            } else if (start > 0) {
+                System.arraycopy(buffer, start, buffer, 0, pending);
+            }
+            start = 0;
+            end = pending;
+            scan = pending;
+
+            int read = in.read(buffer, end, buffer.length - end);
+            if (read < 0) {
+                eof = true;
+            } else {
+                end += read;
+            }
+        }
+    }
+
+    private void line(int from, int to) {
+        lineNumber++;
+        while (from < to && buffer[from] <= ' ') from++;
+        while (to > from && buffer[to - 1] <= ' ') to--;
+        if (from == to) return;
+
+        if (buffer[from] == '[') {
+            if (matches(from, to, "[INCOMES]")) section = Section.INCOMES;
+            else if (matches(from, to, "[EXPENSES]")) section = Section.EXPENSES;
+            else if (matches(from, to, "[SAVINGS]")) section = Section.SAVINGS;
+            else if (matches(from, to, "[TRANSACTIONS]")) section = Section.TRANSACTIONS;
+            return;
+        }
+        if (startsWith(from, to, "WalletPal")) {
+            if (startsWith(from, to, DataManager.HEADER + "|")) {
+                header(from + DataManager.HEADER.length() + 1, to);
+            }
+            return;
+        }
+
+        int fields = 1;
+        for (int i = from; i < to && fields < MAX_FIELDS; i++) {
+            if (buffer[i] == '|') delimiters[fields++ - 1] = i;
+        }
+
+        switch (section) {
+            case INCOMES -> income(from, to, fields);
+            case EXPENSES -> expense(from, to, fields);
+            case SAVINGS -> saving(from, to, fields);
+            case TRANSACTIONS -> transaction(from, to, fields);
+            case NONE -> issue("row outside of any section");
+        }
+    }
+
+    /** {@code sequence} or, from the version escaping text fields on, {@code sequence|version}. */
+    private void header(int from, int to) {
+        int bar = indexOf('|', from, to);
+        long value = 0;
+        for (int i = from; i < (bar < 0 ? to : bar); i++) {
+            char c = buffer[i];
+            if (c < '0' || c > '9') {
+                issue("invalid journal sequence in header");
+                return;
+            }
+            value = value * 10 + (c - '0');
+        }
+        sequence = value;
+        if (bar < 0) return;
+        long format = number(bar + 1, to);
+        if (format != INVALID) version = (int) Math.min(format, Integer.MAX_VALUE);
+    }
+
+    private void income(int from, int to, int fields) {
+        if (fields < 2) {
+            issue("expected source|amount|notes");
+            return;
+        }
+        long amount = amount(delimiters[0] + 1, fieldEnd(1, fields, to));
+        if (amount == INVALID) return;
+
+        String source = field(from, delimiters[0]);
+        incomes.add(new Income(source, amount, text(2, fields, to)));
+    }
+
+    private void expense(int from, int to, int fields) {
+        if (fields < 3) {
+            issue("expected category|limit|spent|notes");
+            return;
+        }
+        long limit = amount(delimiters[0] + 1, delimiters[1]);
+        long spent = amount(delimiters[1] + 1, fieldEnd(2, fields, to));
+        if (limit == INVALID || spent == INVALID) return;
+
+        String category = field(from, delimiters[0]);
+        int row = expenses.size() - firstExpense;
+        if (row == this.spent.length) this.spent = Arrays.copyOf(this.spent, row * 2);
+        this.spent[row] = spent;
+        expenses.add(new Expense(ledger, category, limit, text(3, fields, to)));
+    }
+
+    private void saving(int from, int to, int fields) {
+        if (fields < 3) {
+            issue("expected category|goal|saved|notes");
+            return;
+        }
+        long goal = amount(delimiters[0] + 1, delimiters[1]);
+        long saved = amount(delimiters[1] + 1, fieldEnd(2, fields, to));
+        if (goal == INVALID || saved == INVALID) return;
+
+        String category = field(from, delimiters[0]);
+        int row = savings.size() - firstSaving;
+        if (row == this.saved.length) this.saved = Arrays.copyOf(this.saved, row * 2);
+        this.saved[row] = saved;
+        savings.add(new Savings(ledger, category, goal, text(3, fields, to)));
+    }
+
+    private void transaction(int from, int to, int fields) {
+        char kind = buffer[from];
+        if (fields < 4 || delimiters[0] != from + 1 || (kind != 'E' && kind != 'S')) {
+            issue("expected E|row|timestamp|amount or S|row|timestamp|amount");
+            return;
+        }
+        long row = number(delimiters[0] + 1, delimiters[1]);
+        long timestamp = number(delimiters[1] + 1, delimiters[2]);
+        if (row == INVALID || timestamp == INVALID) return;
+        if (row > Integer.MAX_VALUE) {
+            issue("row index out of range");
+            return;
+        }
+        long amount = amount(delimiters[2] + 1, to);
+        if (amount == INVALID) return;
+
+        (kind == 'E' ? spending : deposits).add((int) row, timestamp, amount);
+    }
+
+    /** Parses a non-negative whole number, or records an issue and returns {@link #INVALID}. */
+    private long number(int from, int to) {
+        if (from == to || to - from > 18) {
+            issue("invalid number");
+            return INVALID;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = buffer[i];
+            if (c < '0' || c > '9') {
+                issue("invalid number");
+                return INVALID;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /** End of field {@code index}: the next delimiter, or the end of the line. */
+    private int fieldEnd(int index, int fields, int to) {
+        return index + 1 < fields ? delimiters[index] : to;
+    }
+
+    /** Trailing text field; anything after a further '|' is ignored, as before. */
+    private String text(int index, int fields, int to) {
+        if (index >= fields) return "";
+        int from = delimiters[index - 1] + 1;
+        int end = indexOf('|', from, to);
+        return field(from, end < 0 ? to : end);
+    }
+
+    private String field(int from, int to) {
+        return version >= DataManager.ESCAPED_VERSION
+                ? DataManager.unescape(buffer, from, to)
+                : new String(buffer, from, to - from);
+    }
+
+    /**
+     * Parses a plain decimal ({@code -123.45}) straight into cents without creating a
+     * String, rounding half-up past the second decimal. Other notations and values near
+     * the range limit go through {@link Money#parse}. Returns {@link #INVALID} after
+     * recording an issue if the field is not a number.
+     */
+    private long amount(int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+
+        long cents = 0;
+        int decimals = 0;
+        int digits = 0;
+        boolean roundUp = false;
+        boolean seenPoint = false;
+        for (; i < to; i++) {
+            char c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (!seenPoint || decimals < 2) {
+                    if (cents > MAX_CENTS / 10) return slowAmount(from, to);
+                    cents = cents * 10 + (c - '0');
+                    if (seenPoint) decimals++;
+                } else if (decimals++ == 2) {
+                    roundUp = c >= '5';
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return slowAmount(from, to);
+            }
+        }
+
+        if (digits == 0) {
+            issue("missing amount");
+            return INVALID;
+        }
+        for (; decimals < 2; decimals++) {
+            if (cents > MAX_CENTS / 10) return slowAmount(from, to);
+            cents *= 10;
+        }
+        if (roundUp) cents++;
+        return negative ? -cents : cents;
+    }
+
+    private long slowAmount(int from, int to) {
+        String text = new String(buffer, from, to - from);
+        try {
+            return Money.parse(text).cents();
+        } catch (NumberFormatException e) {
+            issue("invalid amount '" + text + "'");
+            return INVALID;
+        }
+    }
+
+    private void issue(String message) {
+        issues.add(new LoadReport.Issue(lineNumber, message));
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == c) return i;
+        }
+        return -1;
+    }
+
+    private boolean startsWith(int from, int to, String prefix) {
+        if (to - from < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer[from + i] != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private boolean matches(int from, int to, String text) {
+        return to - from == text.length() && startsWith(from, to, text);
+    }
+}
@@ -0,0 +1,138 @@
+package app.walletpal.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable copy of the three budget lists and their transactions, safe to hand to a
+ * background thread.
+ */
+public final class LedgerSnapshot {
+
+    public record IncomeRow(String source, Money amount, String notes) {}
+
+    public record ExpenseRow(String category, Money limit, Money spent, String notes) {}
+
+    public record SavingsRow(String category, Money goal, Money saved, String notes) {}
+
+    /**
+     * Dated transactions of one section, column by column; {@code rows[i]} is the index
+     * of the owning row within that section.
+     */
+    public record Transactions(int[] rows, long[] timestamps, long[] cents) {
+        public static final Transactions NONE = new Transactions(new int[0], new long[0], new long[0]);
+
+        public int size() { return rows.length; }
+
+        /** Growable columns for loaders that do not know the count up front. */
+        static final class Builder {
+            private int[] rows = new int[64];
+            private long[] timestamps = new long[64];
+            private long[] cents = new long[64];
+            private int size;
+
+            void add(int row, long timestamp, long amount) {
+                if (size == rows.length) {
+                    rows = Arrays.copyOf(rows, size * 2);
+                    timestamps = Arrays.copyOf(timestamps, size * 2);
+                    cents = Arrays.copyOf(cents, size * 2);
+                }
+                rows[size] = row;
+                timestamps[size] = timestamp;
+                cents[size] = amount;
+                size++;
+            }
+
+            Transactions build() {
+                return new Transactions(Arrays.copyOf(rows, size), Arrays.copyOf(timestamps, size),
+                        Arrays.copyOf(cents, size));
+            }
+        }
+    }
+
+    private final List<IncomeRow> incomes;
+    private final List<ExpenseRow> expenses;
+    private final List<SavingsRow> savings;
+    private final Transactions spending;
+    private final Transactions deposits;
+    private final long sequence;
+
+    public LedgerSnapshot(List<IncomeRow> incomes, List<ExpenseRow> expenses, List<SavingsRow> savings,
+                          Transactions spending, Transactions deposits, long sequence) {
+        this.spending = spending;
+        this.deposits = deposits;
+        this.sequence = sequence;
+        this.incomes = Collections.unmodifiableList(incomes);
+        this.expenses = Collections.unmodifiableList(expenses);
+        this.savings = Collections.unmodifiableList(savings);
+    }
+
+    public static LedgerSnapshot of(BudgetEngine engine) {
+        return of(engine, 0);
+    }
+
+    /** {@code sequence} is the last journal record already reflected in the engine. */
+    public static LedgerSnapshot of(BudgetEngine engine, long sequence) {
+        return of(engine.getIncomes(), engine.getExpenses(), engine.getSavings(), sequence);
+    }
+
+    /** {@code sequence} is the last journal record already reflected in the lists. */
+    public static LedgerSnapshot of(List<Income> incomes, List<Expense> expenses, List<Savings> savings,
+                                    long sequence) {
+        List<IncomeRow> incomeRows = new ArrayList<>(incomes.size());
+        for (Income income : incomes) {
+            incomeRows.add(new IncomeRow(income.getSource(), income.getAmount(), income.getNotes()));
+        }
+
+        List<ExpenseRow> expenseRows = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            expenseRows.add(new ExpenseRow(expense.getCategory(), expense.getLimit(),
+                    expense.getSpent(), expense.getNotes()));
+        }
+
+        List<SavingsRow> savingsRows = new ArrayList<>(savings.size());
+        for (Savings saving : savings) {
+            savingsRows.add(new SavingsRow(saving.getCategory(), saving.getGoal(),
+                    saving.getSaved(), saving.getNotes()));
+        }
+
+        Transactions spending = transactions(expenses, Expense::getLedger, Expense::getAccount);
+        Transactions deposits = transactions(savings, Savings::getLedger, Savings::getAccount);
+        return new LedgerSnapshot(incomeRows, expenseRows, savingsRows, spending, deposits, sequence);
+    }
+
+    private static <T> Transactions transactions(List<T> rows, Function<T, TransactionLedger> ledgerOf,
+                                                 ToIntFunction<T> accountOf) {
+        int total = 0;
+        for (T row : rows) {
+            total += ledgerOf.apply(row).count(accountOf.applyAsInt(row));
+        }
+
+        int[] owners = new int[total];
+        long[] timestamps = new long[total];
+        long[] cents = new long[total];
+        int[] next = {0};
+        for (int i = 0; i < rows.size(); i++) {
+            T row = rows.get(i);
+            int owner = i;
+            ledgerOf.apply(row).forEach(accountOf.applyAsInt(row), (timestamp, amount) -> {
+                int slot = next[0]++;
+                owners[slot] = owner;
+                timestamps[slot] = timestamp;
+                cents[slot] = amount;
+            });
+        }
+        return new Transactions(owners, timestamps, cents);
+    }
+
+    public List<IncomeRow> getIncomes() { return incomes; }
+    public List<ExpenseRow> getExpenses() { return expenses; }
+    public List<SavingsRow> getSavings() { return savings; }
+    public Transactions getSpending() { return spending; }
+    public Transactions getDeposits() { return deposits; }
+    public long getSequence() { return sequence; }
+}
@@ -0,0 +1,42 @@
+package app.walletpal.core;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The saved budget of one data directory. Besides saving snapshots, a store answers
+ * queries on the last one without handing a whole budget to an engine: rows a page at
+ * a time, the rows of a category and the transactions between two dates. Changes
+ * journaled since the snapshot are not reflected. {@link DataManager#store} picks the
+ * store for the snapshot on disk.
+ */
+public interface LedgerStore {
+
+    /** Whether a snapshot has been saved. */
+    boolean exists();
+
+    /** Writes {@code snapshot} in place of the last one; the journal is left alone. */
+    void save(LedgerSnapshot snapshot) throws IOException;
+
+    /** Number of rows in the section. */
+    int count(Section section) throws IOException;
+
+    /** Up to {@code count} incomes starting at row {@code from}. */
+    List<LedgerSnapshot.IncomeRow> incomes(int from, int count) throws IOException;
+
+    List<LedgerSnapshot.ExpenseRow> expenses(int from, int count) throws IOException;
+
+    List<LedgerSnapshot.SavingsRow> savings(int from, int count) throws IOException;
+
+    /**
+     * Ascending indexes of the section's rows in {@code category}, ignoring case. An
+     * income's category is its source.
+     */
+    int[] inCategory(Section section, String category) throws IOException;
+
+    /**
+     * The section's transactions dated from {@code from} inclusive to {@code to}
+     * exclusive, oldest first. Incomes have none.
+     */
+    LedgerSnapshot.Transactions between(Section section, long from, long to) throws IOException;
+}
@@ -0,0 +1,30 @@
+package app.walletpal.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of {@link DataManager#loadData}: the last journal sequence reflected in the
+ * loaded lists, plus every line that had to be skipped.
+ */
+public final class LoadReport {
+
+    public record Issue(int line, String message) {
+        @Override
+        public String toString() {
+            return "line " + line + ": " + message;
+        }
+    }
+
+    private final long sequence;
+    private final List<Issue> issues;
+
+    public LoadReport(long sequence, List<Issue> issues) {
+        this.sequence = sequence;
+        this.issues = Collections.unmodifiableList(issues);
+    }
+
+    public long getSequence() { return sequence; }
+    public List<Issue> getIssues() { return issues; }
+    public boolean hasIssues() { return !issues.isEmpty(); }
+}
@@ -0,0 +1,99 @@
+package app.walletpal.core;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact amount of money held as a whole number of cents. Arithmetic never rounds,
+ * so long runs of small spends add up to exactly what was entered. Hot loops that
+ * only need sums can stay on the {@code long} cent values and skip the wrapper.
+ */
+public final class Money implements Comparable<Money> {
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 12}, {@code -3.5} or {@code 1e3}, rounding
+     * anything finer than a cent half-up.
+     *
+     * @throws NumberFormatException if the text is not a number or does not fit
+     */
+    public static Money parse(String text) {
+        try {
+            BigDecimal value = new BigDecimal(text.trim()).setScale(2, RoundingMode.HALF_UP);
+            return ofCents(value.unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    public long cents() { return cents; }
+
+    public Money plus(Money other) { return ofCents(Math.addExact(cents, other.cents)); }
+    public Money minus(Money other) { return ofCents(Math.subtractExact(cents, other.cents)); }
+    public Money max(Money other) { return cents >= other.cents ? this : other; }
+
+    public boolean isNegative() { return cents < 0; }
+    public boolean isPositive() { return cents > 0; }
+
+    /** For display only, e.g. chart values; never feed the result back into arithmetic. */
+    public double toDouble() { return cents / 100.0; }
+
+    /** Sums cent values without creating any intermediate Money. */
+    public static long sum(long[] cents, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total = Math.addExact(total, cents[i]);
+        }
+        return total;
+    }
+
+    /** Percentage of {@code part} in {@code whole}, or 0 when {@code whole} is not positive. */
+    public static double percent(long part, long whole) {
+        return whole > 0 ? part * 100.0 / whole : 0;
+    }
+
+    /** Appends the amount as {@code -1234.56}, always with two decimals and a '.' separator. */
+    public static StringBuilder appendTo(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+            if (cents == Long.MIN_VALUE) {
+                return out.append("92233720368547758.08");
+            }
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        out.append(cents / 100).append('.');
+        if (fraction < 10) out.append('0');
+        return out.append(fraction);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(24), cents).toString();
+    }
+}
@@ -0,0 +1,34 @@
+package app.walletpal.core;
+
+/**
+ * What the {@link ProfileStore} index knows about one profile without opening it: row
+ * counts and totals, journalled changes included, and when its snapshot or journal last changed.
+ */
+public record ProfileInfo(String name, int incomes, int expenses, int savings,
+                          Money income, Money expenseLimits, Money spent,
+                          Money savingsGoals, Money saved, long lastModified) {
+
+    static ProfileInfo of(String name, LedgerSnapshot snapshot, long lastModified) {
+        long income = 0;
+        for (LedgerSnapshot.IncomeRow row : snapshot.getIncomes()) income += row.amount().cents();
+        long limits = 0;
+        long spent = 0;
+        for (LedgerSnapshot.ExpenseRow row : snapshot.getExpenses()) {
+            limits += row.limit().cents();
+            spent += row.spent().cents();
+        }
+        long goals = 0;
+        long saved = 0;
+        for (LedgerSnapshot.SavingsRow row : snapshot.getSavings()) {
+            goals += row.goal().cents();
+            saved += row.saved().cents();
+        }
+        return new ProfileInfo(name, snapshot.getIncomes().size(), snapshot.getExpenses().size(),
+                snapshot.getSavings().size(), Money.ofCents(income), Money.ofCents(limits), Money.ofCents(spent),
+                Money.ofCents(goals), Money.ofCents(saved), lastModified);
+    }
+
+    public int rows() {
+        return incomes + expenses + savings;
+    }
+}
@@ -0,0 +1,175 @@
+package app.walletpal.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Several budgets side by side under one root directory, one subdirectory per profile
+ * holding that profile's snapshot and journal. An index file keeps each profile's
+ * {@link ProfileInfo}, so listing profiles reads one small file instead of every
+ * budget; entries whose snapshot or journal changed behind the store's back are
+ * refreshed on the next {@link #list()}.
+ *
+ * <p>The index is read afresh for every operation and rewritten under a file lock, so
+ * several stores on one root, in this process or others, never lose each other's
+ * entries. Thread-safe.
+ */
+public class ProfileStore {
+    private static final String INDEX_FILE = "profiles.index";
+    private static final String LOCK_FILE = "profiles.lock";
+    private static final String INDEX_HEADER = "WalletPal Profiles|1";
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9 _.-]{0,63}");
+    /** File locks are held per process, so stores in this one also take turns here. */
+    private static final Object INDEX_LOCK = new Object();
+
+    private final Path root;
+
+    public ProfileStore(Path root) {
+        this.root = root;
+    }
+
+    /** The {@code profiles} directory inside the data directory. */
+    public static ProfileStore openDefault() {
+        return new ProfileStore(DataManager.dataDir().resolve("profiles"));
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /** Directory holding the profile's data files. */
+    public Path directory(String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid profile name: " + name);
+        }
+        return root.resolve(name);
+    }
+
+    public boolean exists(String name) {
+        return DataManager.hasData(directory(name));
+    }
+
+    /**
+     * Every profile under the root, from the index. Only profiles whose files changed
+     * since they were indexed are loaded, and the index is updated for them.
+     */
+    public List<ProfileInfo> list() throws IOException {
+        Map<String, ProfileInfo> indexed = readIndex();
+        Map<String, ProfileInfo> current = new TreeMap<>();
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> dirs = Files.list(root)) {
+                for (Path dir : (Iterable<Path>) dirs::iterator) {
+                    String name = dir.getFileName().toString();
+                    if (!NAME.matcher(name).matches() || !DataManager.hasData(dir)) continue;
+                    long modified = lastModified(dir);
+                    ProfileInfo known = indexed.get(name);
+                    if (known != null && known.lastModified() == modified) {
+                        current.put(name, known);
+                        continue;
+                    }
+                    BudgetEngine engine = new BudgetEngine();
+                    DataManager.loadData(dir, engine);
+                    current.put(name, ProfileInfo.of(name, LedgerSnapshot.of(engine), modified));
+                }
+            }
+        }
+        if (!current.equals(indexed)) {
+            updateIndex(index -> {
+                index.keySet().retainAll(current.keySet());
+                index.putAll(current);
+            });
+        }
+        return List.copyOf(current.values());
+    }
+
+    /** Writes {@code snapshot} as the profile's data and updates the index. */
+    public void save(String name, LedgerSnapshot snapshot) throws IOException {
+        Path dir = directory(name);
+        Files.createDirectories(dir);
+        DataManager.writeData(dir, snapshot);
+        ProfileInfo info = ProfileInfo.of(name, snapshot, lastModified(dir));
+        updateIndex(index -> index.put(name, info));
+    }
+
+    /** Removes the profile and all its files. */
+    public void delete(String name) throws IOException {
+        Path dir = directory(name);
+        updateIndex(index -> index.remove(name));
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.delete(file);
+        }
+        Files.delete(dir);
+    }
+
+    /** When the profile's snapshot or journal last changed, whichever is later. */
+    private static long lastModified(Path dir) throws IOException {
+        long modified = Files.getLastModifiedTime(DataManager.snapshotFile(dir)).toMillis();
+        Path journal = dir.resolve(ChangeJournal.JOURNAL_FILE);
+        if (Files.exists(journal)) modified = Math.max(modified, Files.getLastModifiedTime(journal).toMillis());
+        return modified;
+    }
+
+    /** Re-reads the index, applies {@code change} and writes it back, all under the index lock. */
+    private void updateIndex(Consumer<Map<String, ProfileInfo>> change) throws IOException {
+        Files.createDirectories(root);
+        synchronized (INDEX_LOCK) {
+            try (FileChannel channel = FileChannel.open(root.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                Map<String, ProfileInfo> index = readIndex();
+                change.accept(index);
+                writeIndex(index);
+            }
+        }
+    }
+
+    private Map<String, ProfileInfo> readIndex() throws IOException {
+        Map<String, ProfileInfo> index = new TreeMap<>();
+        Path file = root.resolve(INDEX_FILE);
+        if (!Files.exists(file)) return index;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!INDEX_HEADER.equals(reader.readLine())) return index;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\|", -1);
+                try {
+                    index.put(parts[0], new ProfileInfo(parts[0], Integer.parseInt(parts[1]),
+                            Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), Money.parse(parts[4]),
+                            Money.parse(parts[5]), Money.parse(parts[6]), Money.parse(parts[7]),
+                            Money.parse(parts[8]), Long.parseLong(parts[9])));
+                } catch (RuntimeException e) {
+                    // A bad entry is rebuilt from the profile's files on the next list().
+                }
+            }
+        }
+        return index;
+    }
+
+    private void writeIndex(Map<String, ProfileInfo> index) throws IOException {
+        Path temp = root.resolve(INDEX_FILE + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(INDEX_HEADER + "\n");
+            for (ProfileInfo info : index.values()) {
+                writer.write(info.name() + "|" + info.incomes() + "|" + info.expenses() + "|" + info.savings()
+                        + "|" + info.income() + "|" + info.expenseLimits() + "|" + info.spent()
+                        + "|" + info.savingsGoals() + "|" + info.saved() + "|" + info.lastModified() + "\n");
+            }
+        }
+        DataManager.replace(temp, root.resolve(INDEX_FILE));
+    }
+}
@@ -0,0 +1,60 @@
+package app.walletpal.core;
+
+/**
+ * One savings goal. What has been saved is the sum of the row's deposits in the
+ * {@link TransactionLedger}. Created and changed only through {@link BudgetEngine}.
+ */
+public final class Savings extends BudgetRow {
+    private final TransactionLedger ledger;
+    private final int account;
+    private String category;
+    private long goal;
+    private String notes;
+    private long adjustedAt;
+
+    Savings(TransactionLedger ledger, String category, long goal, String notes) {
+        this.ledger = ledger;
+        this.account = ledger.openAccount(Section.SAVINGS);
+        this.category = category;
+        this.goal = goal;
+        this.notes = notes;
+    }
+
+    public String getCategory() { return category; }
+    public Money getGoal() { return Money.ofCents(goal); }
+    public long getGoalCents() { return goal; }
+    public Money getSaved() { return Money.ofCents(ledger.total(account)); }
+    public long getSavedCents() { return ledger.total(account); }
+    public Money getMoreToGo() { return Money.ofCents(goal - ledger.total(account)); }
+    public String getNotes() { return notes; }
+
+    public Money getSavedBetween(long from, long to) { return Money.ofCents(ledger.sum(account, from, to)); }
+
+    public TransactionLedger getLedger() { return ledger; }
+    public int getAccount() { return account; }
+
+    void set(String category, long goal, String notes) {
+        this.category = category;
+        this.goal = goal;
+        this.notes = notes;
+    }
+
+    /** Records a deposit and returns the change to the row's total. */
+    long deposit(long cents, long timestamp) {
+        ledger.record(account, timestamp, cents);
+        return cents;
+    }
+
+    /** Records the difference to {@code target} as an adjustment, keeping the history intact. */
+    long adjustSaved(long target, long timestamp) {
+        long adjustment = Math.subtractExact(target, ledger.total(account));
+        if (adjustment == 0) return 0;
+        adjustedAt = timestamp;
+        return deposit(adjustment, timestamp);
+    }
+
+    /** When the last adjustment was dated, or 0 if there has been none. */
+    long adjustedAt() {
+        return adjustedAt;
+    }
+}
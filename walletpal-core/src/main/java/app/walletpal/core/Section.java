@@ -0,0 +1,4 @@
+package app.walletpal.core;
+
+/** The three kinds of budget rows. */
+public enum Section { INCOME, EXPENSE, SAVINGS }
@@ -0,0 +1,187 @@
+package app.walletpal.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link BudgetEngine} that any thread can write to and read from. Writers stage
+ * changes in a {@link LedgerBatch} on their own thread and {@link #submit} it; the
+ * batches waiting are merged and committed together on the engine's thread, so however
+ * many writers submit between two runs, listeners see one change set per section and
+ * one totals change. The engine itself stays single-threaded and lock-free to read
+ * there.
+ *
+ * <p>Other threads read the rows through copies, made on the engine's thread the first
+ * time a section is read after rows were added to or removed from it. Adding and
+ * removing rows only bumps the section's version, so the engine never copies a list
+ * nobody reads; a read that finds its copy out of date waits for the engine's thread to
+ * run once. The copies hold the engine's own rows, which are edited in place on its
+ * thread; off it, use a row as a handle to stage changes against, and read its fields
+ * through {@link #read}.
+ */
+public class SharedBudget {
+    private final BudgetEngine engine;
+    private final Executor engineThread;
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Thread owner = Thread.currentThread();
+    /** Bumped on the engine's thread whenever the section gains or loses rows. */
+    private final AtomicLongArray versions = new AtomicLongArray(Section.values().length);
+    private volatile Copy<Income> incomes;
+    private volatile Copy<Expense> expenses;
+    private volatile Copy<Savings> savings;
+
+    private record Pending(LedgerBatch batch, CompletableFuture<Void> done) {}
+
+    /** A section's rows as of its {@code version}. */
+    private record Copy<T>(long version, List<T> rows) {}
+
+    /**
+     * {@code engineThread} runs tasks on the thread that uses the engine, which is also the
+     * thread to create this on. Merged batches commit as often as it runs them, so an
+     * executor that runs tasks once per frame publishes once per frame.
+     */
+    public SharedBudget(BudgetEngine engine, Executor engineThread) {
+        this.engine = engine;
+        this.engineThread = engineThread;
+        // Out of date from the start, so the first read of each section makes its copy.
+        incomes = new Copy<>(-1, List.of());
+        expenses = new Copy<>(-1, List.of());
+        savings = new Copy<>(-1, List.of());
+        engine.addListener(new BudgetListener() {
+            @Override
+            public void added(Section section, int from, int to) {
+                changed(section);
+            }
+
+            @Override
+            public void removed(Section section, int[] indexes) {
+                changed(section);
+            }
+        });
+    }
+
+    public BudgetEngine getEngine() { return engine; }
+    public TransactionLedger getLedger() { return engine.getLedger(); }
+    public BudgetConstraintEngine getConstraints() { return engine.getConstraints(); }
+
+    /**
+     * The incomes as of the last change on the engine's thread. Safe on any thread; off
+     * it, may wait for the engine's thread to run, and the rows' fields must be read
+     * through {@link #read}.
+     */
+    public List<Income> incomes() {
+        Copy<Income> copy = incomes;
+        if (copy.version() == versions.get(Section.INCOME.ordinal())) return copy.rows();
+        return onEngineThread(() -> (incomes = copy(Section.INCOME, engine.getIncomes())).rows());
+    }
+
+    public List<Expense> expenses() {
+        Copy<Expense> copy = expenses;
+        if (copy.version() == versions.get(Section.EXPENSE.ordinal())) return copy.rows();
+        return onEngineThread(() -> (expenses = copy(Section.EXPENSE, engine.getExpenses())).rows());
+    }
+
+    public List<Savings> savings() {
+        Copy<Savings> copy = savings;
+        if (copy.version() == versions.get(Section.SAVINGS.ordinal())) return copy.rows();
+        return onEngineThread(() -> (savings = copy(Section.SAVINGS, engine.getSavings())).rows());
+    }
+
+    /**
+     * Runs {@code query} against the engine on its thread and returns the result, for
+     * row fields and totals. Safe on any thread; off it, waits for the engine's thread to
+     * run.
+     */
+    public <T> T read(Function<BudgetEngine, T> query) {
+        return onEngineThread(() -> query.apply(engine));
+    }
+
+    /** Engine thread only. The version is read first, so a copy is never newer than it claims. */
+    private <T> Copy<T> copy(Section section, List<T> rows) {
+        long version = versions.get(section.ordinal());
+        return new Copy<>(version, List.copyOf(rows));
+    }
+
+    private <T> T onEngineThread(Supplier<T> task) {
+        if (Thread.currentThread() == owner) return task.get();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        engineThread.execute(() -> {
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.join();
+    }
+
+    /** Starts a batch for {@link #submit}. Safe on any thread. */
+    public LedgerBatch newBatch() {
+        return new LedgerBatch(engine);
+    }
+
+    /**
+     * Hands {@code batch} over to be committed with the others submitted before the engine
+     * thread next runs. Safe on any thread. The future completes on the engine's thread
+     * once the batch is applied, or exceptionally if committing failed.
+     *
+     * @throws IllegalArgumentException if the batch was started for another engine
+     * @throws IllegalStateException if the batch was already committed or submitted
+     */
+    public CompletableFuture<Void> submit(LedgerBatch batch) {
+        batch.handOver(engine);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        pending.add(new Pending(batch, done));
+        schedule();
+        return done;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) engineThread.execute(this::publish);
+    }
+
+    private void changed(Section section) {
+        versions.incrementAndGet(section.ordinal());
+    }
+
+    private void publish() {
+        // Cleared first, so a batch submitted while this runs schedules the next run.
+        scheduled.set(false);
+        commitPending();
+    }
+
+    /** Commits the waiting batches merged, splitting only where merging would reorder them. */
+    private void commitPending() {
+        LedgerBatch merged = new LedgerBatch(engine);
+        List<CompletableFuture<Void>> merging = new ArrayList<>();
+        Pending next;
+        while ((next = pending.poll()) != null) {
+            if (!merged.absorb(next.batch())) {
+                commit(merged, merging);
+                merged = next.batch();
+                merging = new ArrayList<>();
+            }
+            merging.add(next.done());
+        }
+        commit(merged, merging);
+    }
+
+    private void commit(LedgerBatch merged, List<CompletableFuture<Void>> merging) {
+        if (merging.isEmpty()) return;
+        try {
+            engine.apply(merged);
+        } catch (RuntimeException e) {
+            merging.forEach(done -> done.completeExceptionally(e));
+            return;
+        }
+        merging.forEach(done -> done.complete(null));
+    }
+}
@@ -0,0 +1,245 @@
+package app.walletpal.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Imports a bank statement into a {@link BudgetEngine} in three stages: a reader thread
+ * parses the file, the calling thread categorizes each entry and drops the ones already
+ * imported, and batches of spends are submitted to a {@link SharedBudget}, which commits
+ * them on the engine's own thread. The stages are joined by bounded queues, so a slow
+ * engine thread holds up categorizing, which holds up reading, and memory stays flat
+ * however long the statement is.
+ *
+ * <p>Money leaving the account is recorded against the expense, or failing that the
+ * savings goal, of the category the entry maps to: by the {@link CategoryRules} first,
+ * then by the category's own name appearing in the description. Money coming in is not
+ * imported.
+ *
+ * <p>An entry is a duplicate when the ledger already holds a transaction on the same
+ * row, day and amount. Each existing transaction cancels one entry, so a statement that
+ * overlaps an earlier import adds only the new entries, and two equal purchases on one
+ * day both count the first time round.
+ */
+public class StatementImporter {
+
+    public record Report(int read, int imported, int duplicates, int uncategorized, int credits, int unreadable) {
+        @Override
+        public String toString() {
+            return "Imported " + imported + " of " + read + " entries (" + duplicates + " already imported, "
+                    + uncategorized + " uncategorized, " + credits + " incoming, " + unreadable + " unreadable)";
+        }
+    }
+
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 2000;
+    private static final int COMMITS_IN_FLIGHT = 2;
+
+    private final SharedBudget budget;
+    private final CategoryRules rules;
+
+    /**
+     * Imports into {@code budget}. {@link #run} waits for its batches to commit, so call it
+     * off the engine's thread unless the budget commits on the submitting thread.
+     */
+    public StatementImporter(SharedBudget budget, CategoryRules rules) {
+        this.budget = budget;
+        this.rules = rules;
+    }
+
+    /**
+     * Imports {@code file}, reading its dates in {@code zone}, and returns once every
+     * batch is committed.
+     *
+     * @throws IOException if the statement cannot be read; batches committed before the
+     *         failure stay in the engine
+     */
+    public Report run(Path file, ZoneId zone) throws IOException, InterruptedException {
+        Map<String, BudgetRow> targets = targets();
+        CategoryRules names = new CategoryRules();
+        targets.keySet().forEach(name -> names.add(name, name));
+        // The ledger is thread-safe, so the index is built here, off the engine thread.
+        Seen seen = existing(targets);
+
+        BlockingQueue<StatementReader.Line> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        FutureTask<Integer> reading = new FutureTask<>(() -> StatementReader.read(file, zone, queue::put));
+        Thread reader = new Thread(reading, "walletpal-import");
+        reader.setDaemon(true);
+        reader.start();
+
+        Semaphore inFlight = new Semaphore(COMMITS_IN_FLIGHT);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        int read = 0, imported = 0, duplicates = 0, uncategorized = 0, credits = 0;
+        try {
+            LedgerBatch batch = budget.newBatch();
+            int staged = 0;
+            while (true) {
+                StatementReader.Line line = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (line == null) {
+                    if (reading.isDone() && queue.isEmpty()) break;
+                    continue;
+                }
+                read++;
+                if (!line.amount().isNegative()) {
+                    credits++;
+                    continue;
+                }
+                long cents = -line.amount().cents();
+                BudgetRow row = target(targets, names, line.description(), cents);
+                if (row == null) {
+                    uncategorized++;
+                    continue;
+                }
+                if (seen.take(key(account(row), line.timestamp(), cents))) {
+                    duplicates++;
+                    continue;
+                }
+
+                if (row instanceof Expense expense) batch.spend(expense, Money.ofCents(cents), line.timestamp());
+                else batch.deposit((Savings) row, Money.ofCents(cents), line.timestamp());
+                imported++;
+                if (++staged == BATCH_SIZE) {
+                    commit(batch, inFlight, failure);
+                    batch = budget.newBatch();
+                    staged = 0;
+                }
+            }
+            if (staged > 0) commit(batch, inFlight, failure);
+            inFlight.acquire(COMMITS_IN_FLIGHT);
+            inFlight.release(COMMITS_IN_FLIGHT);
+        } finally {
+            reading.cancel(true);
+        }
+
+        if (failure.get() != null) throw failure.get();
+        int unreadable;
+        try {
+            unreadable = reading.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IllegalStateException(e.getCause());
+        }
+        return new Report(read, imported, duplicates, uncategorized, credits, unreadable);
+    }
+
+    /** Rows by lower-cased category; an expense wins over a savings goal of the same name. */
+    private Map<String, BudgetRow> targets() {
+        return budget.read(engine -> {
+            Map<String, BudgetRow> targets = new LinkedHashMap<>();
+            for (Expense row : engine.getExpenses()) {
+                targets.putIfAbsent(row.getCategory().toLowerCase(Locale.ROOT), row);
+            }
+            for (Savings row : engine.getSavings()) {
+                targets.putIfAbsent(row.getCategory().toLowerCase(Locale.ROOT), row);
+            }
+            return targets;
+        });
+    }
+
+    private Seen existing(Map<String, BudgetRow> targets) {
+        TransactionLedger ledger = budget.getLedger();
+        int count = 0;
+        for (BudgetRow row : targets.values()) count += ledger.count(account(row));
+        Seen seen = new Seen(count);
+        for (BudgetRow row : targets.values()) {
+            int account = account(row);
+            ledger.forEach(account, (timestamp, cents) -> seen.add(key(account, timestamp, cents)));
+        }
+        return seen;
+    }
+
+    /** The row for the rules' category, or else for a category named in the description. */
+    private BudgetRow target(Map<String, BudgetRow> targets, CategoryRules names, String description, long cents) {
+        String category = rules.categorize(description, cents);
+        if (category == null) category = names.categorize(description, cents);
+        return category == null ? null : targets.get(category.toLowerCase(Locale.ROOT));
+    }
+
+    private static int account(BudgetRow row) {
+        return row instanceof Expense expense ? expense.getAccount() : ((Savings) row).getAccount();
+    }
+
+    /** Submits {@code batch} to the budget, waiting while too many are still uncommitted. */
+    private void commit(LedgerBatch batch, Semaphore inFlight, AtomicReference<RuntimeException> failure)
+            throws InterruptedException {
+        inFlight.acquire();
+        budget.submit(batch).whenComplete((done, e) -> {
+            if (e instanceof RuntimeException runtime) failure.compareAndSet(null, runtime);
+            inFlight.release();
+        });
+    }
+
+    private static long key(int account, long timestamp, long cents) {
+        long key = mix(mix(account * 0x9E3779B97F4A7C15L + timestamp) ^ cents);
+        return key == 0 ? 1 : key;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** How often each transaction key occurs, in a flat open-addressed table with no boxing. */
+    private static final class Seen {
+        private long[] keys;
+        private int[] counts;
+        private int size;
+
+        Seen(int expected) {
+            int capacity = 16;
+            while (capacity < expected * 2) capacity <<= 1;
+            keys = new long[capacity];
+            counts = new int[capacity];
+        }
+
+        void add(long key) {
+            if ((size + 1) * 2 > keys.length) grow();
+            int slot = slot(keys, key);
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot]++;
+        }
+
+        /** Uses up one occurrence of {@code key}; false if there is none left. */
+        boolean take(long key) {
+            int slot = slot(keys, key);
+            if (keys[slot] == 0 || counts[slot] == 0) return false;
+            counts[slot]--;
+            return true;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == 0) continue;
+                int slot = slot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+
+        private static int slot(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int slot = (int) key & mask;
+            while (keys[slot] != 0 && keys[slot] != key) slot = (slot + 1) & mask;
+            return slot;
+        }
+    }
+}
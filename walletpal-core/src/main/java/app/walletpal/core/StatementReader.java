@@ -0,0 +1,253 @@
+package app.walletpal.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams the transactions out of a bank statement export, one line at a time, so a
+ * statement of any length is read in constant memory. CSV exports need a header row
+ * naming a date column, an amount column (or separate debit and credit columns) and
+ * optionally a description; OFX and QFX files, SGML or XML, are read by their
+ * {@code STMTTRN} entries. Entries that cannot be read are counted and skipped.
+ */
+public final class StatementReader {
+
+    /** One statement entry. The amount is negative for money leaving the account. */
+    public record Line(long timestamp, Money amount, String description) {}
+
+    /** Receives each entry; may block, which holds up reading. */
+    public interface Sink {
+        void accept(Line line) throws InterruptedException;
+    }
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("M/d/uuuu"),
+            DateTimeFormatter.ofPattern("d.M.uuuu"),
+            DateTimeFormatter.BASIC_ISO_DATE,
+            DateTimeFormatter.ofPattern("M/d/uu"));
+
+    private final ZoneId zone;
+    private final Sink sink;
+    private DateTimeFormatter lastFormat = DATE_FORMATS.get(0);
+    private int unreadable;
+
+    private StatementReader(ZoneId zone, Sink sink) {
+        this.zone = zone;
+        this.sink = sink;
+    }
+
+    /**
+     * Passes every entry of {@code file} to {@code sink}, dated at the start of its day in
+     * {@code zone}, and returns how many entries had to be skipped.
+     *
+     * @throws IOException if the file cannot be read or is not a statement this reader knows
+     */
+    public static int read(Path file, ZoneId zone, Sink sink) throws IOException, InterruptedException {
+        StatementReader reader = new StatementReader(zone, sink);
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String first = in.readLine();
+            while (first != null && first.isBlank()) first = in.readLine();
+            if (first == null) return 0;
+            if (first.startsWith("OFXHEADER") || first.startsWith("<?xml") || first.contains("<OFX>")) {
+                reader.readOfx(first, in);
+            } else {
+                reader.readCsv(first, in);
+            }
+        }
+        return reader.unreadable;
+    }
+
+    private void readCsv(String header, BufferedReader in) throws IOException, InterruptedException {
+        char delimiter = delimiter(header);
+        List<String> fields = new ArrayList<>();
+        split(header, delimiter, fields);
+        int date = -1, amount = -1, debit = -1, credit = -1, description = -1;
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).toLowerCase(Locale.ROOT);
+            if (date < 0 && name.contains("date")) date = i;
+            else if (debit < 0 && (name.contains("debit") || name.contains("withdrawal"))) debit = i;
+            else if (credit < 0 && (name.contains("credit") || name.contains("deposit"))) credit = i;
+            else if (amount < 0 && name.contains("amount")) amount = i;
+            else if (description < 0 && (name.contains("description") || name.contains("payee")
+                    || name.contains("merchant") || name.contains("name") || name.contains("memo"))) description = i;
+        }
+        // "Debit Amount" and "Credit Amount" are split columns, not one signed amount.
+        if (debit >= 0 || credit >= 0) amount = -1;
+        if (date < 0 || (amount < 0 && debit < 0 && credit < 0)) {
+            throw new IOException("Unrecognised statement header: " + header);
+        }
+        boolean decimalComma = delimiter == ';';
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) continue;
+            split(line, delimiter, fields);
+            try {
+                long cents;
+                if (amount >= 0) {
+                    cents = parseAmount(fields.get(amount), decimalComma);
+                } else {
+                    // Debit and credit columns both hold positive numbers.
+                    cents = -Math.abs(parseAmountOrZero(field(fields, debit), decimalComma))
+                            + Math.abs(parseAmountOrZero(field(fields, credit), decimalComma));
+                }
+                emit(parseDate(fields.get(date)), cents, field(fields, description));
+            } catch (RuntimeException e) {
+                unreadable++;
+            }
+        }
+    }
+
+    private void readOfx(String first, BufferedReader in) throws IOException, InterruptedException {
+        String posted = null, amount = null, name = null, memo = null;
+        boolean inTransaction = false;
+        for (String line = first; line != null; line = in.readLine()) {
+            int at = line.indexOf('<');
+            while (at >= 0) {
+                int close = line.indexOf('>', at);
+                if (close < 0) break;
+                String tag = line.substring(at + 1, close).toUpperCase(Locale.ROOT);
+                int next = line.indexOf('<', close);
+                String value = unescape(line.substring(close + 1, next < 0 ? line.length() : next).trim());
+                at = next;
+
+                switch (tag) {
+                    case "STMTTRN" -> {
+                        // SGML files may leave STMTTRN unclosed; the next one closes it.
+                        if (inTransaction) emitOfx(posted, amount, name, memo);
+                        inTransaction = true;
+                        posted = amount = name = memo = null;
+                    }
+                    case "/STMTTRN" -> {
+                        if (inTransaction) emitOfx(posted, amount, name, memo);
+                        inTransaction = false;
+                    }
+                    case "DTPOSTED" -> posted = value;
+                    case "TRNAMT" -> amount = value;
+                    case "NAME", "PAYEE" -> name = value;
+                    case "MEMO" -> memo = value;
+                    default -> {
+                        if (inTransaction && tag.equals("/BANKTRANLIST")) {
+                            emitOfx(posted, amount, name, memo);
+                            inTransaction = false;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void emitOfx(String posted, String amount, String name, String memo) throws InterruptedException {
+        try {
+            // DTPOSTED is YYYYMMDD, optionally followed by the time and zone.
+            LocalDate date = LocalDate.parse(posted.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+            String description = name == null ? memo : memo == null ? name : name + " " + memo;
+            emit(date, parseAmount(amount, false), description);
+        } catch (RuntimeException e) {
+            unreadable++;
+        }
+    }
+
+    private void emit(LocalDate date, long cents, String description) throws InterruptedException {
+        long timestamp = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        sink.accept(new Line(timestamp, Money.ofCents(cents), description == null ? "" : description));
+    }
+
+    private LocalDate parseDate(String text) {
+        String value = text.trim();
+        int end = value.indexOf(' ');
+        if (end < 0) end = value.indexOf('T');
+        if (end > 0) value = value.substring(0, end);
+        try {
+            return LocalDate.parse(value, lastFormat);
+        } catch (DateTimeParseException e) {
+            for (DateTimeFormatter format : DATE_FORMATS) {
+                try {
+                    LocalDate date = LocalDate.parse(value, format);
+                    lastFormat = format;
+                    return date;
+                } catch (DateTimeParseException ignored) {
+                    // try the next format
+                }
+            }
+            throw e;
+        }
+    }
+
+    /** Reads amounts as banks write them: {@code -1,234.56}, {@code $12.00}, {@code (12.00)} or {@code 12,50-}. */
+    static long parseAmount(String text, boolean decimalComma) {
+        StringBuilder digits = new StringBuilder(text.length());
+        boolean negative = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9' || c == '.' && !decimalComma) digits.append(c);
+            else if (c == ',' && decimalComma) digits.append('.');
+            else if (c == '-' || c == '(') negative = true;
+        }
+        long cents = Money.parse(digits.toString()).cents();
+        return negative ? -cents : cents;
+    }
+
+    private static long parseAmountOrZero(String text, boolean decimalComma) {
+        return text == null || text.isBlank() ? 0 : parseAmount(text, decimalComma);
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    /** The most frequent of comma, semicolon and tab in the header. */
+    private static char delimiter(String header) {
+        int commas = 0, semicolons = 0, tabs = 0;
+        for (int i = 0; i < header.length(); i++) {
+            switch (header.charAt(i)) {
+                case ',' -> commas++;
+                case ';' -> semicolons++;
+                case '\t' -> tabs++;
+                default -> { }
+            }
+        }
+        if (tabs > commas && tabs > semicolons) return '\t';
+        return semicolons > commas ? ';' : ',';
+    }
+
+    /** Splits one CSV record into {@code fields}, honouring double quotes. */
+    private static void split(String line, char delimiter, List<String> fields) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') field.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') field.append(line.charAt(++i));
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('&') < 0) return value;
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+}
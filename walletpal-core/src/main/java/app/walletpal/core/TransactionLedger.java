@@ -0,0 +1,255 @@
+package app.walletpal.core;
+
+import java.util.Arrays;
+
+/**
+ * Append-only store of dated spends and deposits. Every {@link Expense} and
+ * {@link Savings} row owns an account id in its section, and each transaction is a
+ * timestamp, an amount in cents and an account id, kept in parallel primitive arrays.
+ *
+ * <p>Per-account totals are maintained on append, so {@code total} is O(1). Range
+ * queries binary-search a time-ordered view with prefix sums. Views are built lazily,
+ * extended in place while transactions arrive in time order and re-sorted only after
+ * one arrives out of order, so the usual append-in-time pattern costs O(log n) per
+ * query.
+ *
+ * <p>The account of a deleted row is closed: its transactions leave every query at
+ * once, and the columns are compacted once closed transactions make up half of them.
+ */
+public class TransactionLedger {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int[] accounts = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // Per-account index: positions of the account's transactions, in append order,
+    // allocated on the account's first transaction.
+    private int[][] postings = new int[16][];
+    private int[] postingCounts = new int[16];
+    private long[] totals = new long[16];
+    private Section[] sections = new Section[16];
+    private boolean[] closed = new boolean[16];
+    private int accountCount;
+    private int closedTransactions;
+
+    // Lazily built time-ordered views. While transactions arrive in time order a view is
+    // extended in place; one arriving out of order drops that view for a re-sort.
+    private final TimeIndex[] sectionByTime = new TimeIndex[Section.values().length];
+    private TimeIndex[] accountByTime = new TimeIndex[16];
+
+    /** Opens an account for a row of {@code section}, spends for expenses and deposits for savings. */
+    public synchronized int openAccount(Section section) {
+        if (accountCount == totals.length) {
+            int capacity = accountCount * 2;
+            postings = Arrays.copyOf(postings, capacity);
+            postingCounts = Arrays.copyOf(postingCounts, capacity);
+            totals = Arrays.copyOf(totals, capacity);
+            sections = Arrays.copyOf(sections, capacity);
+            closed = Arrays.copyOf(closed, capacity);
+            accountByTime = Arrays.copyOf(accountByTime, capacity);
+        }
+        sections[accountCount] = section;
+        return accountCount++;
+    }
+
+    /**
+     * Closes the account of a deleted row: its transactions drop out of every query and
+     * its total becomes zero. Recording on a closed account is an error.
+     */
+    public synchronized void closeAccount(int account) {
+        if (closed[account]) return;
+        closed[account] = true;
+        closedTransactions += postingCounts[account];
+        postings[account] = null;
+        postingCounts[account] = 0;
+        totals[account] = 0;
+        accountByTime[account] = null;
+        sectionByTime[sections[account].ordinal()] = null;
+        if (closedTransactions > INITIAL_CAPACITY && closedTransactions * 2 > size) compact();
+    }
+
+    /** Appends a transaction and returns the account's new total in cents. */
+    public synchronized long record(int account, long timestamp, long cents) {
+        if (closed[account]) throw new IllegalStateException("Account " + account + " is closed");
+        if (size == timestamps.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            accounts = Arrays.copyOf(accounts, capacity);
+        }
+        timestamps[size] = timestamp;
+        amounts[size] = cents;
+        accounts[size] = account;
+
+        int[] list = postings[account];
+        int count = postingCounts[account];
+        if (list == null) {
+            list = postings[account] = new int[4];
+        } else if (count == list.length) {
+            list = postings[account] = Arrays.copyOf(list, count * 2);
+        }
+        list[count] = size;
+        postingCounts[account] = count + 1;
+
+        size++;
+        int section = sections[account].ordinal();
+        if (sectionByTime[section] != null && !sectionByTime[section].append(size - 1)) {
+            sectionByTime[section] = null;
+        }
+        if (accountByTime[account] != null && !accountByTime[account].append(size - 1)) {
+            accountByTime[account] = null;
+        }
+        return totals[account] = Math.addExact(totals[account], cents);
+    }
+
+    public synchronized long total(int account) {
+        return totals[account];
+    }
+
+    /** Transactions on open accounts. */
+    public synchronized int size() {
+        return size - closedTransactions;
+    }
+
+    public synchronized int count(int account) {
+        return postingCounts[account];
+    }
+
+    /** Sum of the account's transactions with {@code from <= timestamp < to}. */
+    public synchronized long sum(int account, long from, long to) {
+        if (accountByTime[account] == null) {
+            int count = postingCounts[account];
+            accountByTime[account] = new TimeIndex(count == 0 ? new int[0] : Arrays.copyOf(postings[account], count));
+        }
+        return accountByTime[account].sum(from, to);
+    }
+
+    /**
+     * Sum of the transactions on every open account of {@code section} with
+     * {@code from <= timestamp < to}: all spending, or all deposits.
+     */
+    public synchronized long sum(Section section, long from, long to) {
+        int s = section.ordinal();
+        if (sectionByTime[s] == null) {
+            int[] order = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int account = accounts[i];
+                if (!closed[account] && sections[account] == section) order[count++] = i;
+            }
+            sectionByTime[s] = new TimeIndex(Arrays.copyOf(order, count));
+        }
+        return sectionByTime[s].sum(from, to);
+    }
+
+    public interface Visitor {
+        void visit(long timestamp, long cents);
+    }
+
+    /** Visits the account's transactions in the order they were recorded. */
+    public synchronized void forEach(int account, Visitor visitor) {
+        int[] list = postings[account];
+        for (int i = 0, n = postingCounts[account]; i < n; i++) {
+            int position = list[i];
+            visitor.visit(timestamps[position], amounts[position]);
+        }
+    }
+
+    /** Transaction positions in timestamp order, with prefix sums of their amounts. */
+    private final class TimeIndex {
+        private int[] order;
+        private long[] prefix;
+        private int length;
+
+        TimeIndex(int[] positions) {
+            for (int i = 1; i < positions.length; i++) {
+                if (timestamps[positions[i]] < timestamps[positions[i - 1]]) {
+                    sortByTimestamp(positions);
+                    break;
+                }
+            }
+            order = positions;
+            length = positions.length;
+            prefix = new long[length + 1];
+            for (int i = 0; i < length; i++) {
+                prefix[i + 1] = prefix[i] + amounts[order[i]];
+            }
+        }
+
+        /** Extends the view with a new transaction; false if it would break time order. */
+        boolean append(int position) {
+            if (length > 0 && timestamps[position] < timestamps[order[length - 1]]) return false;
+            if (length == order.length) {
+                int capacity = Math.max(INITIAL_CAPACITY, length * 2);
+                order = Arrays.copyOf(order, capacity);
+                prefix = Arrays.copyOf(prefix, capacity + 1);
+            }
+            order[length] = position;
+            prefix[length + 1] = prefix[length] + amounts[position];
+            length++;
+            return true;
+        }
+
+        long sum(long from, long to) {
+            if (from >= to) return 0;
+            return prefix[lowerBound(to)] - prefix[lowerBound(from)];
+        }
+
+        /** First index whose timestamp is {@code >= key}. */
+        private int lowerBound(long key) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[order[mid]] < key) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+    }
+
+    /** Drops the transactions of closed accounts from the columns and renumbers the rest. */
+    private void compact() {
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (closed[accounts[read]]) continue;
+            timestamps[write] = timestamps[read];
+            amounts[write] = amounts[read];
+            accounts[write] = accounts[read];
+            write++;
+        }
+        size = write;
+        closedTransactions = 0;
+        Arrays.fill(postingCounts, 0, accountCount, 0);
+        for (int i = 0; i < size; i++) postings[accounts[i]][postingCounts[accounts[i]]++] = i;
+        Arrays.fill(sectionByTime, null);
+        Arrays.fill(accountByTime, 0, accountCount, null);
+    }
+
+    /**
+     * Stable sort of transaction positions by their timestamp: a bottom-up merge sort on
+     * the int array, comparing timestamps in place without boxing.
+     */
+    private void sortByTimestamp(int[] positions) {
+        int[] from = positions;
+        int[] to = new int[positions.length];
+        for (int width = 1; width < positions.length; width *= 2) {
+            for (int low = 0; low < positions.length; low += 2 * width) {
+                int mid = Math.min(low + width, positions.length);
+                int high = Math.min(low + 2 * width, positions.length);
+                int left = low, right = mid;
+                for (int out = low; out < high; out++) {
+                    boolean takeLeft = right >= high
+                            || (left < mid && timestamps[from[left]] <= timestamps[from[right]]);
+                    to[out] = takeLeft ? from[left++] : from[right++];
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != positions) System.arraycopy(from, 0, positions, 0, positions.length);
+    }
+}
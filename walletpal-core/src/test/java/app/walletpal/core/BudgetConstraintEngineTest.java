@@ -0,0 +1,68 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BudgetConstraintEngineTest {
+    private final BudgetConstraintEngine constraints = new BudgetConstraintEngine();
+
+    @Test
+    void reservesOnlyWhatIsFree() {
+        constraints.adjust(100);
+
+        assertTrue(constraints.tryReserve(60));
+        assertFalse(constraints.tryReserve(41));
+        assertTrue(constraints.tryChange(60, 100));
+        assertEquals(0, constraints.headroom());
+        assertTrue(constraints.tryReserve(-30));
+        assertEquals(30, constraints.headroom());
+        assertThrows(IllegalArgumentException.class, () -> constraints.release(-1));
+    }
+
+    @Test
+    void threadsReservingAtOnceNeverTakeMoreThanTheHeadroom() throws Exception {
+        int threads = 8;
+        int attempts = 20_000;
+        long headroom = 50_000;
+        constraints.adjust(headroom);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> taken = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                taken.add(pool.submit(() -> {
+                    start.await();
+                    long mine = 0;
+                    for (int i = 0; i < attempts; i++) {
+                        if (constraints.tryReserve(3)) mine += 3;
+                        // Give some back now and then, so the headroom keeps moving both ways.
+                        if (i % 7 == 0 && mine > 0) {
+                            constraints.release(3);
+                            mine -= 3;
+                        }
+                    }
+                    return mine;
+                }));
+            }
+            start.countDown();
+            long total = 0;
+            for (Future<Long> future : taken) total += future.get();
+
+            assertEquals(headroom, total + constraints.headroom());
+            assertTrue(constraints.headroom() >= 0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
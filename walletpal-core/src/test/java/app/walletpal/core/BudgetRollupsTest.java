@@ -0,0 +1,47 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BudgetRollupsTest {
+    private static final long JANUARY = LocalDate.of(2024, 1, 15).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+    private final BudgetEngine engine = new BudgetEngine();
+    private final BudgetRollups rollups = new BudgetRollups(engine, ZoneOffset.UTC);
+
+    @Test
+    void deletingARowTakesItsTransactionsOut() {
+        engine.addIncome("Salary", Money.ofCents(1_000_00), "");
+        Expense food = engine.addExpense("Food", Money.ofCents(100_00), "");
+        Expense rent = engine.addExpense("Rent", Money.ofCents(500_00), "");
+        engine.spend(food, Money.ofCents(12_34), JANUARY);
+        engine.spend(rent, Money.ofCents(450_00), JANUARY);
+
+        engine.remove(food);
+
+        assertEquals(List.of("Rent"), rollups.categories(Section.EXPENSE));
+        assertEquals(Money.ZERO, rollups.total(Section.EXPENSE, "Food"));
+        assertEquals(Map.of(YearMonth.of(2024, 1), Money.ofCents(450_00)),
+                rollups.monthly(Section.EXPENSE, YearMonth.of(2024, 1), YearMonth.of(2024, 1)));
+        assertEquals(Map.of(), rollups.daily(Section.EXPENSE, "Food", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)));
+    }
+
+    @Test
+    void deletingASavingsGoalTakesItsDepositsOut() {
+        engine.addIncome("Salary", Money.ofCents(1_000_00), "");
+        Savings car = engine.addSavings("Car", Money.ofCents(100_00), "");
+        engine.deposit(car, Money.ofCents(40_00), JANUARY);
+
+        engine.remove(car);
+
+        assertEquals(List.of(), rollups.categories(Section.SAVINGS));
+        assertEquals(Map.of(), rollups.monthly(Section.SAVINGS, YearMonth.of(2024, 1), YearMonth.of(2024, 1)));
+    }
+}
@@ -0,0 +1,130 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CategoryRulesTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void theFirstMatchingRuleWins() {
+        CategoryRules rules = new CategoryRules()
+                .add("coffee", "Coffee")
+                .addPrefix("STARBUCKS", "Starbucks")
+                .add("bucks", "Bucks")
+                .addRegex("#\\d{4}", "Numbered")
+                .addAmountRange(Money.ofCents(1_00), Money.ofCents(5_00), "Small");
+
+        assertEquals("Starbucks", rules.categorize("Starbucks #1234 Seattle", 4_50));
+        assertEquals("Bucks", rules.categorize("Big Bucks #1234", 4_50));
+        assertEquals("Coffee", rules.categorize("Starbucks coffee", 4_50));
+        assertEquals("Numbered", rules.categorize("Store #1234", 4_50));
+        assertEquals("Small", rules.categorize("Store", 5_00));
+        assertNull(rules.categorize("Store", 5_01));
+    }
+
+    @Test
+    void removedRulesStopMatching() {
+        CategoryRules rules = new CategoryRules().add("shell", "Fuel").add("she", "Other");
+        assertEquals("Fuel", rules.categorize("SHELL 42", 0));
+
+        rules.remove(rules.rules().get(0).id());
+
+        assertEquals("Other", rules.categorize("SHELL 42", 0));
+    }
+
+    @Test
+    void agreesWithTryingEveryRuleInTurn() {
+        Random random = new Random(5);
+        String letters = "abcab";
+        CategoryRules rules = new CategoryRules();
+        List<Object[]> reference = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String category = "C" + i;
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    String text = word(random, letters, 1 + random.nextInt(4));
+                    rules.add(text, category);
+                    reference.add(new Object[] {"contains", text, category});
+                }
+                case 1 -> {
+                    String text = word(random, letters, 1 + random.nextInt(5));
+                    rules.addPrefix(text, category);
+                    reference.add(new Object[] {"prefix", text, category});
+                }
+                case 2 -> {
+                    String regex = word(random, letters, 2) + "[0-9]";
+                    rules.addRegex(regex, category);
+                    reference.add(new Object[] {"regex", Pattern.compile(regex, Pattern.CASE_INSENSITIVE), category});
+                }
+                default -> {
+                    long min = random.nextInt(10_000);
+                    long max = min + random.nextInt(2_000);
+                    rules.addAmountRange(Money.ofCents(min), Money.ofCents(max), category);
+                    reference.add(new Object[] {"amount", new long[] {min, max}, category});
+                }
+            }
+            if (i % 50 == 49) {
+                int victim = random.nextInt(rules.size());
+                rules.remove(rules.rules().get(victim).id());
+                reference.remove(victim);
+            }
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            String description = word(random, letters + "0123456789 ", 3 + random.nextInt(12)).toUpperCase(Locale.ROOT);
+            long cents = random.nextInt(12_000);
+            assertEquals(expected(reference, description, cents), rules.categorize(description, cents), description);
+        }
+    }
+
+    @Test
+    void readsRulesFiles() throws IOException {
+        Path file = dir.resolve("import-rules.txt");
+        Files.writeString(file, "# rules\nstarbucks|Coffee\n\nprefix:AMZN|Shopping\nregex:^uber\\b|Travel\n"
+                + "amount:10-49.99|Misc\n");
+
+        CategoryRules rules = CategoryRules.read(file);
+
+        assertEquals(4, rules.size());
+        assertEquals("Shopping", rules.categorize("AMZN Mktp", 0));
+        assertEquals("Travel", rules.categorize("Uber trip", 0));
+        assertEquals("Misc", rules.categorize("Anything", 49_99));
+        Files.writeString(file, "no category here\n");
+        assertThrows(IOException.class, () -> CategoryRules.read(file));
+    }
+
+    private static String word(Random random, String alphabet, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return word.toString();
+    }
+
+    private static String expected(List<Object[]> reference, String description, long cents) {
+        String lower = description.toLowerCase(Locale.ROOT);
+        for (Object[] rule : reference) {
+            boolean matches = switch ((String) rule[0]) {
+                case "contains" -> lower.contains((String) rule[1]);
+                case "prefix" -> lower.startsWith((String) rule[1]);
+                case "regex" -> ((Pattern) rule[1]).matcher(description).find();
+                default -> cents >= ((long[]) rule[1])[0] && cents <= ((long[]) rule[1])[1];
+            };
+            if (matches) return (String) rule[2];
+        }
+        return null;
+    }
+}
@@ -0,0 +1,120 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChangeJournalTest {
+    private static final String AWKWARD = "a|b \\p back\\slash\nnext line\r|";
+
+    @TempDir
+    Path dir;
+
+    private final TransactionLedger ledger = new TransactionLedger();
+    private final List<Income> incomes = new ArrayList<>();
+    private final List<Expense> expenses = new ArrayList<>();
+    private final List<Savings> savings = new ArrayList<>();
+    private final List<LoadReport.Issue> issues = new ArrayList<>();
+
+    @Test
+    void textFieldsSurviveReplay() throws IOException {
+        Income income = new Income(AWKWARD, 100_00, "notes|" + AWKWARD);
+        Expense expense = new Expense(new TransactionLedger(), "Food|Drink", 50_00, AWKWARD);
+        Savings saving = new Savings(new TransactionLedger(), "C:\\new", 20_00, "x|y");
+        ChangeJournal journal = new ChangeJournal(dir);
+        journal.append(List.of(
+                ChangeJournal.added(1, income, 0),
+                ChangeJournal.added(2, expense, 0),
+                ChangeJournal.added(3, saving, 0),
+                ChangeJournal.spent(4, Section.EXPENSE, 0, Money.ofCents(7_25), 1_000)));
+        journal.close();
+
+        assertEquals(4, ChangeJournal.replay(dir, ledger, incomes, expenses, savings, 0, issues));
+        assertEquals(AWKWARD, incomes.get(0).getSource());
+        assertEquals("notes|" + AWKWARD, incomes.get(0).getNotes());
+        assertEquals("Food|Drink", expenses.get(0).getCategory());
+        assertEquals(AWKWARD, expenses.get(0).getNotes());
+        assertEquals(Money.ofCents(7_25), expenses.get(0).getSpent());
+        assertEquals("C:\\new", savings.get(0).getCategory());
+        assertEquals("x|y", savings.get(0).getNotes());
+    }
+
+    @Test
+    void editsAfterResetAreStillEscaped() throws IOException {
+        ChangeJournal journal = new ChangeJournal(dir);
+        journal.append(ChangeJournal.added(1, new Income("Salary", 1_00, ""), 0));
+        journal.reset();
+        journal.append(ChangeJournal.added(2, new Income("Pay|Day", 1_00, ""), 0));
+        journal.append(ChangeJournal.edited(3, new Income("Pay|Night", 2_00, "n|n"), 0));
+        journal.close();
+
+        assertEquals(3, ChangeJournal.replay(dir, ledger, incomes, expenses, savings, 0, issues));
+        assertEquals(1, incomes.size());
+        assertEquals("Pay|Night", incomes.get(0).getSource());
+        assertEquals("n|n", incomes.get(0).getNotes());
+    }
+
+    @Test
+    void replaySkipsRecordsTheSnapshotCoversAndAppliesRemovals() throws IOException {
+        ChangeJournal journal = new ChangeJournal(dir);
+        journal.append(List.of(
+                ChangeJournal.added(1, new Expense(new TransactionLedger(), "Food", 50_00, ""), 0),
+                ChangeJournal.added(2, new Expense(new TransactionLedger(), "Rent", 900_00, ""), 1),
+                ChangeJournal.spent(3, Section.EXPENSE, 0, Money.ofCents(4_00), 1_000),
+                ChangeJournal.spent(4, Section.EXPENSE, 1, Money.ofCents(900_00), 2_000),
+                ChangeJournal.removed(5, Section.EXPENSE, 0, 1)));
+        journal.close();
+        expenses.add(new Expense(ledger, "Food", 50_00, ""));
+
+        assertEquals(5, ChangeJournal.replay(dir, ledger, incomes, expenses, savings, 1, issues));
+        assertEquals(List.of("Rent"), expenses.stream().map(Expense::getCategory).toList());
+        assertEquals(Money.ofCents(900_00), expenses.get(0).getSpent());
+        assertEquals(900_00, ledger.sum(Section.EXPENSE, 0, 10_000));
+    }
+
+    @Test
+    void adjustmentsKeepTheirDateOnReplay() throws IOException {
+        Expense food = new Expense(new TransactionLedger(), "Food", 50_00, "");
+        Savings car = new Savings(new TransactionLedger(), "Car", 500_00, "");
+        ChangeJournal journal = new ChangeJournal(dir);
+        journal.append(List.of(ChangeJournal.added(1, food, 0), ChangeJournal.added(2, car, 0)));
+        food.adjustSpent(12_00, 5_000);
+        car.adjustSaved(40_00, 6_000);
+        journal.append(List.of(ChangeJournal.edited(3, food, 0), ChangeJournal.edited(4, car, 0)));
+        journal.close();
+
+        assertEquals(4, ChangeJournal.replay(dir, ledger, incomes, expenses, savings, 0, issues));
+        assertEquals(12_00, ledger.sum(expenses.get(0).getAccount(), 5_000, 5_001));
+        assertEquals(40_00, ledger.sum(savings.get(0).getAccount(), 6_000, 6_001));
+    }
+
+    @Test
+    void replayStopsAtATornRecordAndReportsIt() throws IOException {
+        ChangeJournal journal = new ChangeJournal(dir);
+        journal.append(List.of(
+                ChangeJournal.added(1, new Income("Salary", 1_00, ""), 0),
+                "2|ADD|INCOME|1|Bon",
+                ChangeJournal.added(3, new Income("Gift", 1_00, ""), 1)));
+        journal.close();
+
+        assertEquals(1, ChangeJournal.replay(dir, ledger, incomes, expenses, savings, 0, issues));
+        assertEquals(1, incomes.size());
+        assertEquals(1, issues.size());
+        assertEquals(3, issues.get(0).line());
+    }
+
+    @Test
+    void journalsOfAnUnknownVersionAreRefused() throws IOException {
+        Files.writeString(dir.resolve(ChangeJournal.JOURNAL_FILE), "#9\n1|ADD|INCOME|0|Salary|1.00|\n");
+
+        assertThrows(IOException.class, () -> ChangeJournal.replay(dir, ledger, incomes, expenses, savings, 0, issues));
+    }
+}
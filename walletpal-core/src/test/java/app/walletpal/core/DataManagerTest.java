@@ -0,0 +1,157 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataManagerTest {
+    @TempDir
+    Path dir;
+
+    private final TransactionLedger ledger = new TransactionLedger();
+    private final ArrayList<Income> incomes = new ArrayList<>();
+    private final ArrayList<Expense> expenses = new ArrayList<>();
+    private final ArrayList<Savings> savings = new ArrayList<>();
+
+    @ParameterizedTest
+    @EnumSource(DataManager.Format.class)
+    void snapshotsRoundTrip(DataManager.Format format) throws IOException {
+        TransactionLedger source = new TransactionLedger();
+        List<Expense> expenseRows = new ArrayList<>();
+        List<Savings> savingsRows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Expense expense = new Expense(source, "Category " + i % 7, 100_00 + i, "note " + i);
+            for (int t = 0; t < 5; t++) expense.spend(i + t, 1_000L * (i % 11) + 5 - t);
+            expenseRows.add(expense);
+            Savings saving = new Savings(source, "Goal " + i, 1_000_00, "");
+            saving.deposit(i, 5_000L - i);
+            savingsRows.add(saving);
+        }
+        LedgerSnapshot snapshot = LedgerSnapshot.of(List.of(new Income("Salary", 3_000_00, "monthly")),
+                expenseRows, savingsRows, 42);
+
+        DataManager.writeData(dir, snapshot, format);
+        LoadReport report = DataManager.readData(dir, incomes, expenses, savings, ledger);
+
+        assertTrue(report.getIssues().isEmpty(), report.getIssues().toString());
+        assertEquals(42, report.getSequence());
+        assertSame(snapshot, LedgerSnapshot.of(incomes, expenses, savings, 42));
+    }
+
+    @Test
+    void savingDeletesSnapshotsInOtherFormats() throws IOException {
+        DataManager.writeData(dir, LedgerSnapshot.of(List.of(new Income("Old", 1_00, "")), List.of(), List.of(), 1),
+                DataManager.Format.TEXT);
+        DataManager.writeData(dir, LedgerSnapshot.of(List.of(new Income("New", 2_00, "")), List.of(), List.of(), 2),
+                DataManager.Format.BINARY);
+
+        assertEquals(List.of("walletpal_data.bin"), fileNames());
+        assertEquals(2, DataManager.readData(dir, incomes, expenses, savings, ledger).getSequence());
+        assertEquals("New", incomes.get(0).getSource());
+    }
+
+    @Test
+    void theNewestSnapshotIsLoaded() throws IOException {
+        DataManager.writeData(dir, LedgerSnapshot.of(List.of(new Income("Old", 1_00, "")), List.of(), List.of(), 1),
+                DataManager.Format.BINARY);
+        Path binary = dir.resolve("walletpal_data.bin");
+        Path kept = dir.resolve("kept.bin");
+        Files.copy(binary, kept);
+        DataManager.writeData(dir, LedgerSnapshot.of(List.of(new Income("New", 2_00, "")), List.of(), List.of(), 2),
+                DataManager.Format.INDEXED);
+        // As if the save had crashed before deleting the older binary snapshot.
+        Files.move(kept, binary);
+        Files.setLastModifiedTime(binary, FileTime.fromMillis(1_000));
+
+        assertEquals(dir.resolve(IndexedLedgerStore.FILE), DataManager.snapshotFile(dir));
+        assertEquals(2, DataManager.readData(dir, incomes, expenses, savings, ledger).getSequence());
+    }
+
+    @Test
+    void jsonExportRoundTrips() throws IOException {
+        TransactionLedger source = new TransactionLedger();
+        Expense expense = new Expense(source, "Food \"quoted\"", 400_00, "line one\nline two");
+        expense.spend(12_50, 1_000);
+        expense.adjustSpent(10_00, 2_000);
+        Savings saving = new Savings(source, "Car", 5_000_00, "\u00e9t\u00e9");
+        saving.deposit(100_00, 3_000);
+        LedgerSnapshot snapshot = LedgerSnapshot.of(List.of(new Income("Salary", 3_000_00, "")),
+                List.of(expense), List.of(saving), 0);
+        Path file = dir.resolve("export.json");
+
+        DataManager.exportJson(snapshot, file);
+        LoadReport report = DataManager.importJson(file, incomes, expenses, savings, ledger);
+
+        assertTrue(report.getIssues().isEmpty(), report.getIssues().toString());
+        assertSame(snapshot, LedgerSnapshot.of(incomes, expenses, savings, 0));
+    }
+
+    /** Equal rows, and per row the same transactions, whatever order they were stored in. */
+    static void assertSame(LedgerSnapshot expected, LedgerSnapshot actual) {
+        assertEquals(expected.getIncomes(), actual.getIncomes());
+        assertEquals(expected.getExpenses(), actual.getExpenses());
+        assertEquals(expected.getSavings(), actual.getSavings());
+        assertEquals(sorted(expected.getSpending()), sorted(actual.getSpending()));
+        assertEquals(sorted(expected.getDeposits()), sorted(actual.getDeposits()));
+    }
+
+    private static List<String> sorted(LedgerSnapshot.Transactions transactions) {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            rows.add(transactions.rows()[i] + "@" + transactions.timestamps()[i] + "=" + transactions.cents()[i]);
+        }
+        rows.sort(null);
+        return rows;
+    }
+
+    @Test
+    void textSnapshotKeepsAwkwardText() throws IOException {
+        TransactionLedger source = new TransactionLedger();
+        Expense expense = new Expense(source, "Food|Drink", 400_00, "line one\nline two|\\");
+        expense.spend(12_50, 1_000);
+        Savings saving = new Savings(source, "C:\\new", 5_000_00, "\r\n");
+        saving.deposit(100_00, 2_000);
+        LedgerSnapshot snapshot = LedgerSnapshot.of(List.of(new Income("Pay|Day", 3_000_00, "a|b")),
+                List.of(expense), List.of(saving), 7);
+
+        DataManager.writeData(dir, snapshot, DataManager.Format.TEXT);
+        LoadReport report = DataManager.readData(dir, incomes, expenses, savings, ledger);
+
+        assertTrue(report.getIssues().isEmpty(), report.getIssues().toString());
+        assertEquals(7, report.getSequence());
+        assertEquals(snapshot.getIncomes(), LedgerSnapshot.of(incomes, expenses, savings, 7).getIncomes());
+        assertEquals(snapshot.getExpenses(), LedgerSnapshot.of(incomes, expenses, savings, 7).getExpenses());
+        assertEquals(snapshot.getSavings(), LedgerSnapshot.of(incomes, expenses, savings, 7).getSavings());
+    }
+
+    @Test
+    void readsTextSnapshotsWrittenBeforeEscaping() throws IOException {
+        Files.writeString(dir.resolve("walletpal_data.txt"), DataManager.HEADER + "|3\n"
+                + "[INCOMES]\nC:\\new|10.00|\\p\n[EXPENSES]\n[SAVINGS]\n[TRANSACTIONS]\n", StandardCharsets.UTF_8);
+
+        LoadReport report = DataManager.readData(dir, incomes, expenses, savings, ledger);
+
+        assertEquals(3, report.getSequence());
+        assertEquals("C:\\new", incomes.get(0).getSource());
+        assertEquals("\\p", incomes.get(0).getNotes());
+    }
+
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonImporterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void rowsBeyondTheIncomeAreRejected() throws Exception {
+        TransactionLedger source = new TransactionLedger();
+        Expense food = new Expense(source, "Food", 60_00, "");
+        food.spend(25_00, 1_000);
+        food.adjustSpent(20_00, 2_000);
+        Expense rent = new Expense(source, "Rent", 60_00, "");
+        Savings car = new Savings(source, "Car", 40_00, "");
+        car.deposit(10_00, 3_000);
+        Path file = dir.resolve("budget.json");
+        DataManager.exportJson(LedgerSnapshot.of(List.of(new Income("Salary", 100_00, "")),
+                List.of(food, rent), List.of(car), 0), file);
+
+        BudgetEngine engine = new BudgetEngine();
+        JsonImporter.Report report = new JsonImporter(new SharedBudget(engine, Runnable::run)).run(file);
+
+        assertEquals(3, report.imported());
+        assertEquals(List.of("Expense Rent (60.00)"), report.rejected());
+        assertEquals(List.of("Food"), engine.getExpenses().stream().map(Expense::getCategory).toList());
+        assertEquals(Money.ofCents(20_00), engine.getExpenses().get(0).getSpent());
+        assertEquals(Money.ofCents(10_00), engine.getSavings().get(0).getSaved());
+        assertEquals(0, engine.getConstraints().headroom());
+        assertEquals(20_00, engine.getLedger().sum(Section.EXPENSE, 0, 10_000));
+    }
+
+    @Test
+    void largeFilesAreCommittedBatchByBatch() throws Exception {
+        TransactionLedger source = new TransactionLedger();
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            Expense expense = new Expense(source, "Category " + i, 1_00, "");
+            expense.spend(50, i);
+            expenses.add(expense);
+        }
+        Path file = dir.resolve("budget.json");
+        DataManager.exportJson(LedgerSnapshot.of(List.of(new Income("Salary", 10_000_00, "")),
+                expenses, List.of(), 0), file);
+
+        BudgetEngine engine = new BudgetEngine();
+        AtomicInteger commits = new AtomicInteger();
+        SharedBudget budget = new SharedBudget(engine, task -> {
+            commits.incrementAndGet();
+            task.run();
+        });
+        JsonImporter.Report report = new JsonImporter(budget).run(file);
+
+        assertEquals(2_501, report.imported());
+        assertEquals(2_500, engine.getExpenses().size());
+        // The income, then three batches of expenses.
+        assertEquals(4, commits.get());
+        assertEquals(Money.ofCents(1_250_00), engine.getTotalSpent());
+        assertEquals(10_000_00 - 2_500_00, engine.getConstraints().headroom());
+    }
+}
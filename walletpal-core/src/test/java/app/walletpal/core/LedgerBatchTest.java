@@ -0,0 +1,89 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LedgerBatchTest {
+    private final BudgetEngine engine = new BudgetEngine();
+
+    @Test
+    void discardGivesBackReservations() {
+        engine.addIncome("Salary", Money.ofCents(100_00), "");
+        LedgerBatch batch = new LedgerBatch(engine);
+        batch.addExpense("Food", Money.ofCents(30_00), "");
+        batch.addSavings("Car", Money.ofCents(20_00), "");
+        assertEquals(50_00, engine.getConstraints().headroom());
+
+        batch.discard();
+
+        assertEquals(100_00, engine.getConstraints().headroom());
+    }
+
+    @Test
+    void reservationsBecomeTheAllocationOfCommittedRows() {
+        engine.addIncome("Salary", Money.ofCents(100_00), "");
+        LedgerBatch batch = new LedgerBatch(engine);
+        batch.addExpense("Food", Money.ofCents(30_00), "");
+        assertThrows(BudgetException.class, () -> batch.addSavings("Car", Money.ofCents(80_00), ""));
+
+        batch.commit();
+
+        assertEquals(70_00, engine.getConstraints().headroom());
+        assertEquals(Money.ofCents(70_00), engine.getUnallocated());
+    }
+
+    @Test
+    void editsAndIncomeRemovalsReserveWhatTheyTake() {
+        Income salary = engine.addIncome("Salary", Money.ofCents(100_00), "");
+        Expense food = engine.addExpense("Food", Money.ofCents(30_00), "");
+        LedgerBatch batch = new LedgerBatch(engine);
+        batch.updateExpense(food, "Food", Money.ofCents(60_00), Money.ZERO, "");
+        assertEquals(40_00, engine.getConstraints().headroom());
+        assertThrows(BudgetException.class, () -> batch.remove(salary));
+        assertThrows(BudgetException.class,
+                () -> batch.updateIncome(salary, "Salary", Money.ofCents(50_00), ""));
+
+        batch.commit();
+
+        assertEquals(40_00, engine.getConstraints().headroom());
+        assertEquals(List.of(salary), engine.getIncomes());
+        assertEquals(Money.ofCents(100_00), salary.getAmount());
+    }
+
+    @Test
+    void freedIncomeIsOnlyGivenBackOnCommit() {
+        engine.addIncome("Salary", Money.ofCents(100_00), "");
+        Expense food = engine.addExpense("Food", Money.ofCents(30_00), "");
+        LedgerBatch batch = new LedgerBatch(engine);
+        batch.remove(food);
+        batch.addIncome("Bonus", Money.ofCents(50_00), "");
+        assertEquals(70_00, engine.getConstraints().headroom());
+
+        batch.commit();
+
+        assertEquals(150_00, engine.getConstraints().headroom());
+    }
+
+    @Test
+    void failedApplyGivesBackWhatItDidNotUse() {
+        Income salary = engine.addIncome("Salary", Money.ofCents(100_00), "");
+        engine.addListener(new BudgetListener() {
+            @Override
+            public void updated(Section section, int index) {
+                throw new IllegalStateException("listener failed");
+            }
+        });
+        LedgerBatch batch = new LedgerBatch(engine);
+        batch.updateIncome(salary, "Salary", Money.ofCents(100_00), "edited");
+        batch.addExpense("Food", Money.ofCents(30_00), "");
+
+        assertThrows(IllegalStateException.class, batch::commit);
+
+        assertEquals(100_00, engine.getConstraints().headroom());
+        assertEquals(0, engine.getExpenses().size());
+    }
+}
@@ -0,0 +1,86 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedgerStoreTest {
+    @TempDir
+    Path dir;
+
+    private static LedgerSnapshot budget(int rows) {
+        TransactionLedger ledger = new TransactionLedger();
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Expense expense = new Expense(ledger, i % 3 == 0 ? "Food" : "Rent " + i, 10_00 + i, "");
+            expense.spend(1_00, 1_000L * (rows - i));
+            expenses.add(expense);
+        }
+        List<Savings> savings = List.of(new Savings(ledger, "Trip", 500_00, ""));
+        savings.get(0).deposit(25_00, 5_500);
+        return LedgerSnapshot.of(List.of(new Income("Salary", 100_000_00, "")), expenses, savings, 7);
+    }
+
+    @ParameterizedTest
+    @EnumSource(DataManager.Format.class)
+    void pagesCategoriesAndDatesMatchTheSnapshot(DataManager.Format format) throws IOException {
+        LedgerSnapshot snapshot = budget(1_000);
+        DataManager.writeData(dir, snapshot, format);
+        LedgerStore store = DataManager.store(dir);
+
+        assertTrue(store.exists());
+        assertEquals(1_000, store.count(Section.EXPENSE));
+        assertEquals(snapshot.getExpenses().subList(400, 450), store.expenses(400, 50));
+        assertEquals(snapshot.getExpenses().subList(990, 1_000), store.expenses(990, 50));
+        assertEquals(snapshot.getIncomes(), store.incomes(0, 10));
+        assertEquals(snapshot.getSavings(), store.savings(0, 10));
+
+        int[] food = store.inCategory(Section.EXPENSE, "FOOD");
+        assertEquals(334, food.length);
+        assertEquals(999, food[food.length - 1]);
+        assertArrayEquals(new int[] {0}, store.inCategory(Section.INCOME, "salary"));
+
+        LedgerSnapshot.Transactions spending = store.between(Section.EXPENSE, 3_000, 6_000);
+        assertArrayEquals(new long[] {3_000, 4_000, 5_000}, spending.timestamps());
+        assertArrayEquals(new int[] {997, 996, 995}, spending.rows());
+        assertArrayEquals(new long[] {5_500}, store.between(Section.SAVINGS, 0, 10_000).timestamps());
+        assertEquals(0, store.between(Section.INCOME, 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    void theIndexedStoreServesIndexedSnapshots() throws IOException {
+        DataManager.writeData(dir, budget(3), DataManager.Format.INDEXED);
+
+        assertInstanceOf(IndexedLedgerStore.class, DataManager.store(dir));
+    }
+
+    @ParameterizedTest
+    @EnumSource(DataManager.Format.class)
+    void aStoreSeesTheNextSave(DataManager.Format format) throws IOException {
+        DataManager.writeData(dir, budget(10), format);
+        LedgerStore store = DataManager.store(dir);
+        assertEquals(10, store.count(Section.EXPENSE));
+
+        store.save(budget(20));
+
+        assertEquals(20, store.count(Section.EXPENSE));
+        assertEquals(budget(20).getExpenses().subList(15, 20), store.expenses(15, 5));
+    }
+
+    @Test
+    void anEmptyDirectoryHasNoStore() {
+        assertFalse(DataManager.store(dir).exists());
+    }
+}
@@ -0,0 +1,63 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProfileStoreTest {
+    @TempDir
+    Path root;
+
+    private static LedgerSnapshot budget(long income) {
+        return LedgerSnapshot.of(List.of(new Income("Salary", income, "")), List.of(), List.of(), 0);
+    }
+
+    @Test
+    void storesOnOneRootKeepEachOthersEntries() throws IOException {
+        ProfileStore first = new ProfileStore(root);
+        ProfileStore second = new ProfileStore(root);
+        first.save("home", budget(1_00));
+        second.save("work", budget(2_00));
+        first.save("home", budget(3_00));
+
+        List<ProfileInfo> profiles = second.list();
+
+        assertEquals(List.of("home", "work"), profiles.stream().map(ProfileInfo::name).toList());
+        assertEquals(Money.ofCents(3_00), profiles.get(0).income());
+    }
+
+    @Test
+    void journalledChangesRefreshTheIndex() throws IOException {
+        ProfileStore store = new ProfileStore(root);
+        store.save("home", budget(1_00));
+        ChangeJournal journal = new ChangeJournal(store.directory("home"));
+        journal.append(ChangeJournal.added(1, new Income("Bonus", 5_00, ""), 1));
+        journal.close();
+        Path file = store.directory("home").resolve(ChangeJournal.JOURNAL_FILE);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        ProfileInfo info = store.list().get(0);
+
+        assertEquals(2, info.incomes());
+        assertEquals(Money.ofCents(6_00), info.income());
+        assertEquals(info, new ProfileStore(root).list().get(0));
+    }
+
+    @Test
+    void deletedProfilesLeaveTheList() throws IOException {
+        ProfileStore store = new ProfileStore(root);
+        store.save("home", budget(1_00));
+        store.save("work", budget(2_00));
+
+        store.delete("home");
+
+        assertEquals(List.of("work"), store.list().stream().map(ProfileInfo::name).toList());
+    }
+}
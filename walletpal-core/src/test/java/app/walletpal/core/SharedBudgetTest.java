@@ -0,0 +1,147 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedBudgetTest {
+    private final ExecutorService engineThread = Executors.newSingleThreadExecutor();
+    private final BudgetEngine engine = new BudgetEngine();
+    private final SharedBudget budget = onEngineThread(() -> new SharedBudget(engine, engineThread));
+
+    @AfterEach
+    void stop() {
+        engineThread.shutdownNow();
+    }
+
+    private <T> T onEngineThread(Callable<T> task) {
+        try {
+            return engineThread.submit(task).get();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    void readsOffTheEngineThreadSeeCommittedRows() throws Exception {
+        LedgerBatch batch = budget.newBatch();
+        batch.addIncome("Salary", Money.ofCents(100_00), "");
+        batch.addIncome("Bonus", Money.ofCents(5_00), "");
+        budget.submit(batch).get();
+
+        List<Income> incomes = budget.incomes();
+
+        assertEquals(List.of("Salary", "Bonus"),
+                budget.read(engine -> incomes.stream().map(Income::getSource).toList()));
+        assertSame(incomes, budget.incomes());
+        assertEquals(List.of(), budget.expenses());
+    }
+
+    @Test
+    void aCopyIsRemadeOnlyAfterItsSectionChanges() throws Exception {
+        LedgerBatch batch = budget.newBatch();
+        batch.addIncome("Salary", Money.ofCents(100_00), "");
+        batch.addIncome("Bonus", Money.ofCents(50_00), "");
+        budget.submit(batch).get();
+        List<Income> before = budget.incomes();
+
+        LedgerBatch expense = budget.newBatch();
+        expense.addExpense("Food", Money.ofCents(40_00), "");
+        budget.submit(expense).get();
+        assertSame(before, budget.incomes());
+        assertEquals(1, budget.expenses().size());
+
+        Income bonus = before.get(1);
+        LedgerBatch removal = budget.newBatch();
+        removal.remove(bonus);
+        budget.submit(removal).get();
+        assertEquals(List.of(before.get(0)), budget.incomes());
+    }
+
+    @Test
+    void batchesFromManyThreadsAllCommit() throws Exception {
+        budget.submit(incomeBatch(1_000_000_00)).get();
+        int threads = 6;
+        int batches = 50;
+        ExecutorService writers = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int writer = t;
+                done.add(writers.submit(() -> {
+                    List<CompletableFuture<Void>> commits = new ArrayList<>();
+                    for (int b = 0; b < batches; b++) {
+                        LedgerBatch batch = budget.newBatch();
+                        Expense row = batch.addExpense(writer + "/" + b, Money.ofCents(10_00), "");
+                        batch.spend(row, Money.ofCents(1_00), b);
+                        batch.spend(row, Money.ofCents(2_00), b + 1);
+                        commits.add(budget.submit(batch));
+                    }
+                    commits.forEach(CompletableFuture::join);
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) future.get();
+        } finally {
+            writers.shutdownNow();
+        }
+
+        assertEquals(threads * batches, budget.expenses().size());
+        List<String> categories = budget.read(
+                engine -> engine.getExpenses().stream().map(Expense::getCategory).toList());
+        for (int t = 0; t < threads; t++) {
+            String writer = t + "/";
+            // Each writer's batches keep the order they were submitted in.
+            assertEquals(IntStream.range(0, batches).mapToObj(b -> writer + b).toList(), categories.stream()
+                    .filter(category -> category.startsWith(writer)).toList());
+        }
+        assertEquals(threads * batches * 3_00L, onEngineThread(() -> engine.getTotalSpent().cents()));
+        assertEquals(1_000_000_00L - threads * batches * 10_00L, engine.getConstraints().headroom());
+    }
+
+    @Test
+    void conflictingBatchesApplyInSubmissionOrder() {
+        Queue<Runnable> pulse = new ArrayDeque<>();
+        BudgetEngine local = new BudgetEngine();
+        SharedBudget shared = new SharedBudget(local, pulse::add);
+        local.addIncome("Salary", Money.ofCents(100_00), "");
+        Expense food = local.addExpense("Food", Money.ofCents(50_00), "");
+
+        LedgerBatch adds = shared.newBatch();
+        Expense coffee = adds.addExpense("Coffee", Money.ofCents(10_00), "");
+        LedgerBatch removes = shared.newBatch();
+        removes.remove(coffee);
+        LedgerBatch spends = shared.newBatch();
+        spends.spend(food, Money.ofCents(7_00), 1);
+        LedgerBatch edits = shared.newBatch();
+        edits.updateExpense(food, "Food", Money.ofCents(50_00), Money.ofCents(5_00), "");
+        List<CompletableFuture<Void>> commits = List.of(shared.submit(adds), shared.submit(removes),
+                shared.submit(spends), shared.submit(edits));
+        while (!pulse.isEmpty()) pulse.poll().run();
+
+        commits.forEach(commit -> assertTrue(commit.isDone() && !commit.isCompletedExceptionally()));
+        // Merged naively, the removal would precede the add and the edit the spend.
+        assertEquals(List.of(food), local.getExpenses());
+        assertEquals(Money.ofCents(5_00), food.getSpent());
+    }
+
+    private LedgerBatch incomeBatch(long cents) {
+        LedgerBatch batch = budget.newBatch();
+        batch.addIncome("Salary", Money.ofCents(cents), "");
+        return batch;
+    }
+}
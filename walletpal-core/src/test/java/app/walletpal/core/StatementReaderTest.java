@@ -0,0 +1,63 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementReaderTest {
+    @TempDir
+    Path dir;
+
+    private final List<StatementReader.Line> lines = new ArrayList<>();
+
+    private int read(String statement) throws IOException, InterruptedException {
+        Path file = dir.resolve("statement");
+        Files.writeString(file, statement, StandardCharsets.UTF_8);
+        return StatementReader.read(file, ZoneOffset.UTC, lines::add);
+    }
+
+    private List<Money> amounts() {
+        return lines.stream().map(StatementReader.Line::amount).toList();
+    }
+
+    @Test
+    void debitAndCreditAmountColumnsAreSplit() throws Exception {
+        assertEquals(0, read("Date,Description,Debit Amount,Credit Amount\n"
+                + "2024-03-01,Coffee,4.50,\n"
+                + "2024-03-02,Salary,,2000.00\n"));
+
+        assertEquals(List.of(Money.ofCents(-4_50), Money.ofCents(2_000_00)), amounts());
+        assertEquals("Coffee", lines.get(0).description());
+    }
+
+    @Test
+    void signedAmountColumn() throws Exception {
+        assertEquals(1, read("Transaction Date;Payee;Amount\n"
+                + "01.03.2024;Bakery;-3,20\n"
+                + "not a date;Bakery;1,00\n"
+                + "02.03.2024;Refund;12,50\n"));
+
+        assertEquals(List.of(Money.ofCents(-3_20), Money.ofCents(12_50)), amounts());
+    }
+
+    @Test
+    void ofxEntries() throws Exception {
+        assertEquals(0, read("OFXHEADER:100\n<OFX><BANKTRANLIST>\n"
+                + "<STMTTRN><DTPOSTED>20240301120000<TRNAMT>-9.99<NAME>Books &amp; more\n"
+                + "<STMTTRN><DTPOSTED>20240302<TRNAMT>15.00<MEMO>Refund\n"
+                + "</BANKTRANLIST></OFX>\n"));
+
+        assertEquals(List.of(Money.ofCents(-9_99), Money.ofCents(15_00)), amounts());
+        assertEquals("Books & more", lines.get(0).description());
+        assertEquals("Refund", lines.get(1).description());
+    }
+}
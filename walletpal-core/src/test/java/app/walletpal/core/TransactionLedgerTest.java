@@ -0,0 +1,87 @@
+package app.walletpal.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionLedgerTest {
+    private final TransactionLedger ledger = new TransactionLedger();
+
+    @Test
+    void sumsSpendingAndDepositsSeparately() {
+        int food = ledger.openAccount(Section.EXPENSE);
+        int car = ledger.openAccount(Section.SAVINGS);
+        ledger.record(food, 10, 5_00);
+        ledger.record(car, 20, 100_00);
+        ledger.record(food, 30, 7_00);
+
+        assertEquals(12_00, ledger.sum(Section.EXPENSE, 0, 100));
+        assertEquals(100_00, ledger.sum(Section.SAVINGS, 0, 100));
+        assertEquals(0, ledger.sum(Section.INCOME, 0, 100));
+        assertEquals(5_00, ledger.sum(Section.EXPENSE, 0, 30));
+    }
+
+    @Test
+    void closedAccountsLeaveEveryQuery() {
+        int kept = ledger.openAccount(Section.EXPENSE);
+        int deleted = ledger.openAccount(Section.EXPENSE);
+        ledger.record(kept, 10, 1_00);
+        ledger.record(deleted, 10, 2_00);
+        assertEquals(3_00, ledger.sum(Section.EXPENSE, 0, 100));
+
+        ledger.closeAccount(deleted);
+
+        assertEquals(1_00, ledger.sum(Section.EXPENSE, 0, 100));
+        assertEquals(0, ledger.total(deleted));
+        assertEquals(0, ledger.count(deleted));
+        assertEquals(1, ledger.size());
+        assertThrows(IllegalStateException.class, () -> ledger.record(deleted, 20, 1_00));
+    }
+
+    @Test
+    void compactionKeepsOpenAccountsIntact() {
+        Random random = new Random(7);
+        List<Integer> open = new ArrayList<>();
+        for (int i = 0; i < 40; i++) open.add(ledger.openAccount(i % 2 == 0 ? Section.EXPENSE : Section.SAVINGS));
+        for (int i = 0; i < 5_000; i++) {
+            ledger.record(open.get(random.nextInt(open.size())), random.nextInt(1_000), random.nextInt(10_000));
+        }
+        for (int i = 0; i < 30; i++) ledger.closeAccount(open.remove(random.nextInt(open.size())));
+
+        long spending = 0;
+        for (int account : open) {
+            long[] recount = new long[1];
+            ledger.forEach(account, (timestamp, cents) -> recount[0] += cents);
+            assertEquals(ledger.total(account), recount[0]);
+            assertEquals(ledger.total(account), ledger.sum(account, 0, 1_000));
+            if (account % 2 == 0) spending += ledger.total(account);
+        }
+        assertEquals(spending, ledger.sum(Section.EXPENSE, 0, 1_000));
+    }
+
+    @Test
+    void outOfOrderTransactionsAreSortedStably() {
+        int account = ledger.openAccount(Section.EXPENSE);
+        Random random = new Random(11);
+        long[] times = new long[2_000];
+        long[] cents = new long[times.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = random.nextInt(500);
+            cents[i] = random.nextInt(1_000);
+            ledger.record(account, times[i], cents[i]);
+        }
+        for (int from = 0; from < 500; from += 37) {
+            long expected = 0;
+            for (int i = 0; i < times.length; i++) {
+                if (times[i] >= from && times[i] < from + 50) expected += cents[i];
+            }
+            assertEquals(expected, ledger.sum(account, from, from + 50));
+            assertEquals(expected, ledger.sum(Section.EXPENSE, from, from + 50));
+        }
+    }
+}